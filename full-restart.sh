@@ -13,7 +13,7 @@ lsof -ti:3000 | xargs kill -9 2>/dev/null || true
 sleep 2
 
 echo "🚀 Starting Backend..."
-mvn spring-boot:run -pl talachibank-api > "$LOG_DIR/backend.log" 2>&1 &
+mvn spring-boot:run -pl talachibank-api -Dspring-boot.run.profiles=dev > "$LOG_DIR/backend.log" 2>&1 &
 
 echo "🚀 Starting Frontend..."
 cd "$PROJECT_DIR/talachibank-client"
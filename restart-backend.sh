@@ -24,4 +24,4 @@ fi
 
 echo "🚀 Starting Spring Boot Backend with large header support..."
 export SERVER_MAX_HTTP_HEADER_SIZE=1048576
-mvn -pl talachibank-api spring-boot:run -DskipTests
+mvn -pl talachibank-api spring-boot:run -DskipTests -Dspring-boot.run.profiles=dev
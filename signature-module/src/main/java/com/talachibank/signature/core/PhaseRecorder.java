@@ -0,0 +1,74 @@
+package com.talachibank.signature.core;
+
+import jdk.jfr.EventType;
+
+import java.lang.management.ManagementFactory;
+
+/**
+ * Accumulates time and allocation per {@link SignPhase} over one sign call.
+ * Only created when a listener is installed or the JFR event is enabled, so
+ * unprofiled signing pays a null check per phase boundary.
+ */
+final class PhaseRecorder {
+
+    private static final SignPhase[] PHASES = SignPhase.values();
+    private static final EventType EVENT_TYPE = EventType.getEventType(SignPhaseEvent.class);
+    private static final com.sun.management.ThreadMXBean THREADS = allocationCounter();
+
+    private final long[] nanos = new long[PHASES.length];
+    private final long[] bytes = new long[PHASES.length];
+    private long lastNanos;
+    private long lastBytes;
+
+    private PhaseRecorder() {
+        lastNanos = System.nanoTime();
+        lastBytes = allocatedBytes();
+    }
+
+    /**
+     * @return a running recorder, or null when nobody is listening
+     */
+    static PhaseRecorder startIfEnabled(SignPhaseListener listener) {
+        return listener != null || EVENT_TYPE.isEnabled() ? new PhaseRecorder() : null;
+    }
+
+    /** Charges everything since the previous boundary to {@code phase}. */
+    void lap(SignPhase phase) {
+        long now = System.nanoTime();
+        long allocated = allocatedBytes();
+        nanos[phase.ordinal()] += now - lastNanos;
+        bytes[phase.ordinal()] += allocated - lastBytes;
+        lastNanos = now;
+        lastBytes = allocated;
+    }
+
+    void publish(int securityLevel, SignPhaseListener listener) {
+        for (SignPhase phase : PHASES) {
+            long phaseNanos = nanos[phase.ordinal()];
+            long phaseBytes = bytes[phase.ordinal()];
+            if (listener != null) {
+                listener.onPhase(phase, securityLevel, phaseNanos, phaseBytes);
+            }
+            SignPhaseEvent event = new SignPhaseEvent();
+            if (event.shouldCommit()) {
+                event.phase = phase.name();
+                event.securityLevel = securityLevel;
+                event.phaseTime = phaseNanos;
+                event.allocated = phaseBytes;
+                event.commit();
+            }
+        }
+    }
+
+    private static long allocatedBytes() {
+        return THREADS != null ? THREADS.getCurrentThreadAllocatedBytes() : 0;
+    }
+
+    private static com.sun.management.ThreadMXBean allocationCounter() {
+        if (ManagementFactory.getThreadMXBean() instanceof com.sun.management.ThreadMXBean threads
+                && threads.isThreadAllocatedMemorySupported() && threads.isThreadAllocatedMemoryEnabled()) {
+            return threads;
+        }
+        return null;
+    }
+}
@@ -8,6 +8,8 @@ import org.bouncycastle.util.Arrays;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
+import java.nio.BufferOverflowException;
+import java.nio.ByteBuffer;
 import java.security.SecureRandom;
 import java.util.ArrayList;
 import java.util.List;
@@ -19,12 +21,25 @@ import java.util.List;
  */
 public class SDitHSigner {
     private static final Logger logger = LoggerFactory.getLogger(SDitHSigner.class);
+    private static final int SALT_BYTES = 32;
+    private static final int SEED_BYTES = 32; // tree nodes and commitments
     private final SecureRandom random;
+    private volatile SignPhaseListener phaseListener;
 
     public SDitHSigner() {
         this.random = new SecureRandom();
     }
 
+    /**
+     * Installs a listener that receives the time and allocation of each
+     * {@link SignPhase} of every {@link #sign} call, or removes it with null.
+     * The same breakdown is emitted as {@link SignPhaseEvent} JFR events
+     * whenever a recording enables them, listener or not.
+     */
+    public void setPhaseListener(SignPhaseListener phaseListener) {
+        this.phaseListener = phaseListener;
+    }
+
     // --- ALGORITHM 9: KeyGen ---
     public SDithKeyPair generateKeyPair(SDitHParameters params) {
         int n = params.getN();
@@ -49,6 +64,66 @@ public class SDitHSigner {
 
     // --- ALGORITHM 10: Sign ---
     public byte[] sign(byte[] message, SDithPrivateKey privateKey) {
+        return sign(message, 0, message.length, privateKey, null);
+    }
+
+    /**
+     * Signs {@code message} and writes the signature straight into {@code out}
+     * at its position, advancing it. A buffer with
+     * {@link #maxSignatureSize(SDitHParameters)} bytes remaining always fits.
+     *
+     * @return the number of bytes written
+     * @throws BufferOverflowException if the signature does not fit; nothing
+     *                                 is written in that case
+     */
+    public int signInto(byte[] message, SDithPrivateKey privateKey, ByteBuffer out) {
+        return signInto(message, 0, message.length, privateKey, out);
+    }
+
+    /**
+     * {@link #signInto(byte[], SDithPrivateKey, ByteBuffer)} over
+     * {@code message[offset, offset + length)}, for callers that keep the
+     * message in a reusable buffer.
+     */
+    public int signInto(byte[] message, int offset, int length, SDithPrivateKey privateKey, ByteBuffer out) {
+        java.util.Objects.checkFromIndexSize(offset, length, message.length);
+        int start = out.position();
+        sign(message, offset, length, privateKey, out);
+        return out.position() - start;
+    }
+
+    /**
+     * Exact encoded size of a signature, which depends only on the parameters
+     * and on how many hidden indices are not the last party (those rounds carry
+     * the last share).
+     */
+    public static int signatureSize(SDitHParameters params, int[] hiddenIndices) {
+        int lastParty = params.getNMpc() - 1;
+        int size = SALT_BYTES + params.getTau() * roundHeaderSize(params);
+        for (int h : hiddenIndices) {
+            if (h != lastParty)
+                size += params.getN();
+        }
+        return size;
+    }
+
+    /** Upper bound of {@link #signatureSize}: every round carries the last share. */
+    public static int maxSignatureSize(SDitHParameters params) {
+        return SALT_BYTES + params.getTau() * (roundHeaderSize(params) + params.getN());
+    }
+
+    // Hidden index, hidden commitment and the seed tree path
+    private static int roundHeaderSize(SDitHParameters params) {
+        int height = (int) Math.ceil(Math.log(params.getNMpc()) / Math.log(2));
+        return 1 + SEED_BYTES + height * SEED_BYTES;
+    }
+
+    /**
+     * Writes into {@code target} when given (returning null), otherwise into a
+     * new array of the exact signature size.
+     */
+    private byte[] sign(byte[] message, int messageOffset, int messageLength, SDithPrivateKey privateKey,
+            ByteBuffer target) {
         SDitHParameters params = privateKey.getParams();
         int tau = params.getTau();
         int N = params.getNMpc();
@@ -58,6 +133,9 @@ public class SDitHSigner {
         byte[] salt = new byte[32];
         random.nextBytes(salt);
 
+        SignPhaseListener listener = phaseListener;
+        PhaseRecorder phases = PhaseRecorder.startIfEnabled(listener);
+
         List<SeedTree> trees = new ArrayList<>();
         List<byte[][]> allShares = new ArrayList<>();
         List<byte[]> commitments = new ArrayList<>(); // Flat list of all commitments
@@ -71,6 +149,9 @@ public class SDitHSigner {
             trees.add(tree);
 
             byte[][] seeds = tree.getLeaves();
+            if (phases != null)
+                phases.lap(SignPhase.SEED_TREE);
+
             byte[][] roundShares = new byte[N][n];
             byte[] runningSum = new byte[n];
 
@@ -83,22 +164,53 @@ public class SDitHSigner {
             for (int j = 0; j < n; j++)
                 roundShares[N - 1][j] = GF256.add(e[j], runningSum[j]);
             allShares.add(roundShares);
+            if (phases != null)
+                phases.lap(SignPhase.SHARE_EXPANSION);
 
             for (int i = 0; i < N; i++) {
                 commitments.add(commitToShare(commitHash, salt, r, i, roundShares[i]));
             }
+            if (phases != null)
+                phases.lap(SignPhase.COMMITMENTS);
         }
 
         // Global Challenge
-        byte[] h1 = generateH1(message, salt, commitments);
+        byte[] h1 = generateH1(message, messageOffset, messageLength, salt, commitments);
         int[] hiddenIndices = expandChallengeToIndices(h1, tau, N);
+        if (phases != null)
+            phases.lap(SignPhase.H1);
 
         // Response
-        return buildSignature(params, salt, trees, allShares, commitments, hiddenIndices);
+        int size = signatureSize(params, hiddenIndices);
+        byte[] signature = null;
+        ByteBuffer out = target;
+        if (out == null) {
+            signature = new byte[size];
+            out = ByteBuffer.wrap(signature);
+        } else if (out.remaining() < size) {
+            throw new BufferOverflowException();
+        }
+        writeSignature(out, params, salt, trees, allShares, commitments, hiddenIndices);
+        if (phases != null) {
+            phases.lap(SignPhase.SERIALIZATION);
+            phases.publish(params.getSecurityLevel(), listener);
+        }
+        return signature;
     }
 
     public boolean verify(byte[] message, byte[] signature, SDithPublicKey publicKey) {
+        return verify(message, 0, message.length, signature, 0, signature.length, publicKey);
+    }
+
+    /**
+     * Verifies {@code signature[signatureOffset, +signatureLength)} over
+     * {@code message[messageOffset, +messageLength)} without copying either out
+     * of the caller's buffers. The signature must fill its range exactly.
+     */
+    public boolean verify(byte[] message, int messageOffset, int messageLength,
+            byte[] signature, int signatureOffset, int signatureLength, SDithPublicKey publicKey) {
         try {
+            java.util.Objects.checkFromIndexSize(messageOffset, messageLength, message.length);
             SDitHParameters params = publicKey.getParams();
             int tau = params.getTau();
             int N = params.getNMpc();
@@ -109,7 +221,7 @@ public class SDitHSigner {
             byte[] H = expandSeedToMatrix(publicKey.getPublicKey(), rows, n);
             byte[] s = publicKey.getSyndrome();
 
-            ParsedSignature parsed = ParsedSignature.parse(signature, params);
+            ParsedSignature parsed = ParsedSignature.parse(signature, signatureOffset, signatureLength, params);
             byte[] salt = parsed.salt;
 
             List<byte[]> rebuiltCommitments = new ArrayList<>();
@@ -169,7 +281,7 @@ public class SDitHSigner {
                 }
             }
 
-            byte[] h1_rebuilt = generateH1(message, salt, rebuiltCommitments);
+            byte[] h1_rebuilt = generateH1(message, messageOffset, messageLength, salt, rebuiltCommitments);
             int[] hiddenIndicesRebuilt = expandChallengeToIndices(h1_rebuilt, tau, N);
 
             return java.util.Arrays.equals(hiddenIndicesRebuilt, parsed.hiddenIndices);
@@ -209,9 +321,9 @@ public class SDitHSigner {
         return out;
     }
 
-    private byte[] generateH1(byte[] message, byte[] salt, List<byte[]> commitments) {
+    private byte[] generateH1(byte[] message, int offset, int length, byte[] salt, List<byte[]> commitments) {
         SHA3Digest digest = new SHA3Digest(256);
-        digest.update(message, 0, message.length);
+        digest.update(message, offset, length);
         digest.update(salt, 0, salt.length);
         for (byte[] c : commitments)
             digest.update(c, 0, c.length);
@@ -232,30 +344,26 @@ public class SDitHSigner {
         return indices;
     }
 
-    private byte[] buildSignature(SDitHParameters params, byte[] salt,
+    // Caller guarantees signatureSize(params, hiddenIndices) bytes remaining in out
+    private void writeSignature(ByteBuffer out, SDitHParameters params, byte[] salt,
             List<SeedTree> trees, List<byte[][]> allShares,
             List<byte[]> commitments, int[] hiddenIndices) {
-        java.io.ByteArrayOutputStream bos = new java.io.ByteArrayOutputStream();
-        try {
-            bos.write(salt);
-            for (int r = 0; r < params.getTau(); r++) {
-                int h = hiddenIndices[r];
-                bos.write(h); // Hidden Index (1 byte if N <= 256)
-                bos.write(commitments.get(r * params.getNMpc() + h)); // Hidden Commitment
-
-                byte[][] path = trees.get(r).getPath(h);
-                for (byte[] p : path)
-                    bos.write(p);
-
-                // If the hidden index is not N-1, we must provide the "delta" or the last share
-                // to allow reconstruction of the syndrome check.
-                if (h != params.getNMpc() - 1) {
-                    bos.write(allShares.get(r)[params.getNMpc() - 1]);
-                }
+        out.put(salt);
+        for (int r = 0; r < params.getTau(); r++) {
+            int h = hiddenIndices[r];
+            out.put((byte) h); // Hidden Index (1 byte if N <= 256)
+            out.put(commitments.get(r * params.getNMpc() + h)); // Hidden Commitment
+
+            byte[][] path = trees.get(r).getPath(h);
+            for (byte[] p : path)
+                out.put(p);
+
+            // If the hidden index is not N-1, we must provide the "delta" or the last share
+            // to allow reconstruction of the syndrome check.
+            if (h != params.getNMpc() - 1) {
+                out.put(allShares.get(r)[params.getNMpc() - 1]);
             }
-        } catch (Exception e) {
         }
-        return bos.toByteArray();
     }
 
     private static class ParsedSignature {
@@ -265,12 +373,17 @@ public class SDitHSigner {
         List<byte[][]> treePaths;
         List<byte[]> lastShares; // If needed
 
-        static ParsedSignature parse(byte[] sig, SDitHParameters params) {
+        static ParsedSignature parse(byte[] sig, int start, int length, SDitHParameters params) {
             ParsedSignature p = new ParsedSignature();
             int tau = params.getTau();
             int N = params.getNMpc();
             int height = (int) Math.ceil(Math.log(N) / Math.log(2));
-            int offset = 0;
+            java.util.Objects.checkFromIndexSize(start, length, sig.length);
+            if (length < SALT_BYTES + tau * roundHeaderSize(params)) {
+                throw new IllegalArgumentException("Signature too short");
+            }
+            int offset = start;
+            int end = start + length;
 
             p.salt = Arrays.copyOfRange(sig, offset, offset + 32);
             offset += 32;
@@ -293,12 +406,18 @@ public class SDitHSigner {
                 p.treePaths.add(path);
 
                 if (p.hiddenIndices[r] != N - 1) {
+                    if (offset + params.getN() > end) {
+                        throw new IllegalArgumentException("Signature too short");
+                    }
                     p.lastShares.add(Arrays.copyOfRange(sig, offset, offset + params.getN()));
                     offset += params.getN();
                 } else {
                     p.lastShares.add(null);
                 }
             }
+            if (offset != end) {
+                throw new IllegalArgumentException("Trailing bytes after signature");
+            }
             return p;
         }
     }
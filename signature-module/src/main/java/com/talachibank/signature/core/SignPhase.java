@@ -0,0 +1,18 @@
+package com.talachibank.signature.core;
+
+/**
+ * Stages of {@link SDitHSigner#sign}, as reported to a
+ * {@link SignPhaseListener} and in {@link SignPhaseEvent}s.
+ */
+public enum SignPhase {
+    /** Root seed sampling and GGM seed tree expansion, all rounds. */
+    SEED_TREE,
+    /** Expanding leaf seeds into shares and closing the sum, all rounds. */
+    SHARE_EXPANSION,
+    /** Hashing every share into its commitment, all rounds. */
+    COMMITMENTS,
+    /** Challenge hash over the commitments and its expansion into hidden indices. */
+    H1,
+    /** Writing the signature bytes. */
+    SERIALIZATION
+}
@@ -0,0 +1,37 @@
+package com.talachibank.signature.core;
+
+import jdk.jfr.Category;
+import jdk.jfr.DataAmount;
+import jdk.jfr.Description;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+import jdk.jfr.Timespan;
+
+/**
+ * JFR event emitted once per phase of each {@link SDitHSigner#sign} call while
+ * a recording has it enabled, e.g.
+ * {@code jcmd <pid> JFR.start settings=profile} plus
+ * {@code com.talachibank.SDitHSignPhase#enabled=true}.
+ */
+@Name("com.talachibank.SDitHSignPhase")
+@Label("SDitH Sign Phase")
+@Category({ "Talachi Bank", "SDitH" })
+@Description("Time and allocation of one phase of an SDitH signature")
+@StackTrace(false)
+class SignPhaseEvent extends jdk.jfr.Event {
+
+    @Label("Phase")
+    String phase;
+
+    @Label("Security Level")
+    int securityLevel;
+
+    @Label("Phase Time")
+    @Timespan(Timespan.NANOSECONDS)
+    long phaseTime;
+
+    @Label("Allocated")
+    @DataAmount(DataAmount.BYTES)
+    long allocated;
+}
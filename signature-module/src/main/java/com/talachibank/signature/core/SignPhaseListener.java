@@ -0,0 +1,19 @@
+package com.talachibank.signature.core;
+
+/**
+ * Receives the per-phase cost of each {@link SDitHSigner#sign} call, once per
+ * phase, on the signing thread, right after the signature is produced.
+ * Implementations must be cheap and thread-safe.
+ */
+@FunctionalInterface
+public interface SignPhaseListener {
+
+    /**
+     * @param phase          the signing stage
+     * @param securityLevel  security level of the key used (128, 192, 256)
+     * @param nanos          wall time spent in the phase during this call
+     * @param allocatedBytes bytes allocated by the signing thread in the phase,
+     *                       or 0 when the JVM cannot measure it
+     */
+    void onPhase(SignPhase phase, int securityLevel, long nanos, long allocatedBytes);
+}
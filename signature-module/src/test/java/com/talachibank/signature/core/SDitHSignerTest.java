@@ -1,6 +1,13 @@
 package com.talachibank.signature.core;
 
 import org.junit.jupiter.api.Test;
+
+import java.nio.BufferOverflowException;
+import java.nio.ByteBuffer;
+import java.util.Arrays;
+import java.util.EnumMap;
+import java.util.Map;
+
 import static org.junit.jupiter.api.Assertions.*;
 
 public class SDitHSignerTest {
@@ -30,4 +37,90 @@ public class SDitHSignerTest {
         boolean invalid = signer.verify("Tampered".getBytes(), signature, keyPair.getPublicKey());
         assertFalse(invalid, "Signature should be invalid for different message");
     }
+
+    @Test
+    public void testPhaseListenerSeesEveryPhaseOnce() {
+        SDitHSigner signer = new SDitHSigner();
+        SDitHParameters params = new SDitHParameters(128);
+        SDithKeyPair keyPair = signer.generateKeyPair(params);
+
+        Map<SignPhase, Long> nanos = new EnumMap<>(SignPhase.class);
+        signer.setPhaseListener((phase, level, phaseNanos, allocated) -> {
+            assertEquals(128, level);
+            assertTrue(allocated >= 0);
+            assertNull(nanos.put(phase, phaseNanos), "phase reported twice: " + phase);
+        });
+
+        byte[] signature = signer.sign("profiled".getBytes(), keyPair.getPrivateKey());
+        assertEquals(SignPhase.values().length, nanos.size());
+        nanos.values().forEach(n -> assertTrue(n >= 0));
+        assertTrue(signer.verify("profiled".getBytes(), signature, keyPair.getPublicKey()));
+
+        signer.setPhaseListener(null);
+        signer.sign("unprofiled".getBytes(), keyPair.getPrivateKey());
+        assertEquals(SignPhase.values().length, nanos.size());
+    }
+
+    @Test
+    public void testSignIntoWritesExactSizeAtBufferPosition() {
+        SDitHSigner signer = new SDitHSigner();
+        SDitHParameters params = new SDitHParameters(128);
+        SDithKeyPair keyPair = signer.generateKeyPair(params);
+        byte[] message = "into buffer".getBytes();
+
+        ByteBuffer out = ByteBuffer.allocate(16 + SDitHSigner.maxSignatureSize(params));
+        out.position(16);
+        int written = signer.signInto(message, keyPair.getPrivateKey(), out);
+        assertEquals(16 + written, out.position());
+        assertTrue(written <= SDitHSigner.maxSignatureSize(params));
+
+        byte[] signature = Arrays.copyOfRange(out.array(), 16, 16 + written);
+        assertTrue(signer.verify(message, signature, keyPair.getPublicKey()));
+
+        // Only rounds whose hidden party is the last one drop the last share
+        int length = signer.sign(message, keyPair.getPrivateKey()).length;
+        assertTrue(length <= SDitHSigner.maxSignatureSize(params));
+        assertEquals(0, (SDitHSigner.maxSignatureSize(params) - length) % params.getN());
+
+        assertThrows(BufferOverflowException.class,
+                () -> signer.signInto(message, keyPair.getPrivateKey(), ByteBuffer.allocate(64)));
+    }
+
+    @Test
+    public void testVerifyReadsMessageAndSignatureInPlace() {
+        SDitHSigner signer = new SDitHSigner();
+        SDitHParameters params = new SDitHParameters(128);
+        SDithKeyPair keyPair = signer.generateKeyPair(params);
+        byte[] message = "in place".getBytes();
+        byte[] signature = signer.sign(message, keyPair.getPrivateKey());
+
+        // Message and signature inside larger buffers, surrounded by other bytes
+        byte[] messageBuffer = new byte[7 + message.length + 5];
+        Arrays.fill(messageBuffer, (byte) '#');
+        System.arraycopy(message, 0, messageBuffer, 7, message.length);
+        byte[] signatureBuffer = new byte[11 + signature.length + 3];
+        Arrays.fill(signatureBuffer, (byte) 0x5A);
+        System.arraycopy(signature, 0, signatureBuffer, 11, signature.length);
+
+        assertTrue(signer.verify(messageBuffer, 7, message.length, signatureBuffer, 11, signature.length,
+                keyPair.getPublicKey()));
+        assertFalse(signer.verify(messageBuffer, 6, message.length, signatureBuffer, 11, signature.length,
+                keyPair.getPublicKey()), "shifted message");
+        assertFalse(signer.verify(messageBuffer, 7, message.length, signatureBuffer, 10, signature.length,
+                keyPair.getPublicKey()), "shifted signature");
+
+        // The range must hold exactly one signature
+        assertFalse(signer.verify(messageBuffer, 7, message.length, signatureBuffer, 11, signature.length + 1,
+                keyPair.getPublicKey()), "trailing byte");
+        assertFalse(signer.verify(messageBuffer, 7, message.length, signatureBuffer, 11, signature.length - 1,
+                keyPair.getPublicKey()), "truncated");
+        byte[] padded = Arrays.copyOf(signature, signature.length + 1);
+        assertFalse(signer.verify(message, padded, keyPair.getPublicKey()), "trailing byte");
+
+        // Out-of-range slices are rejected, not thrown
+        assertFalse(signer.verify(messageBuffer, 7, messageBuffer.length, signatureBuffer, 11, signature.length,
+                keyPair.getPublicKey()));
+        assertFalse(signer.verify(messageBuffer, 7, message.length, signatureBuffer, 11, signatureBuffer.length,
+                keyPair.getPublicKey()));
+    }
 }
@@ -181,7 +181,7 @@ echo ""
 echo -e "${YELLOW}[3/4]${NC} Starting Spring Boot backend..."
 
 cd "$PROJECT_DIR"
-mvn spring-boot:run -pl talachibank-api > "$LOG_DIR/backend.log" 2>&1 &
+mvn spring-boot:run -pl talachibank-api -Dspring-boot.run.profiles=dev > "$LOG_DIR/backend.log" 2>&1 &
 BACKEND_PID=$!
 echo $BACKEND_PID > "$LOG_DIR/backend.pid"
 
@@ -1,7 +1,11 @@
 package com.talachibank.api;
 
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 import org.springframework.boot.SpringApplication;
 import org.springframework.boot.autoconfigure.SpringBootApplication;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnThreading;
+import org.springframework.boot.autoconfigure.thread.Threading;
 import org.springframework.scheduling.annotation.EnableScheduling;
 
 import org.springframework.boot.web.embedded.undertow.UndertowServletWebServerFactory;
@@ -9,12 +13,16 @@ import org.springframework.boot.web.server.WebServerFactoryCustomizer;
 import org.springframework.context.annotation.Bean;
 import io.undertow.UndertowOptions;
 
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
 @EnableScheduling
 @SpringBootApplication(scanBasePackages = {
 		"com.talachibank.api",
 		"com.talachibank.signature"
 })
 public class TalachiBankApplication {
+	private static final Logger logger = LoggerFactory.getLogger(TalachiBankApplication.class);
 
 	public static void main(String[] args) {
 		SpringApplication.run(TalachiBankApplication.class, args);
@@ -25,7 +33,21 @@ public class TalachiBankApplication {
 		return factory -> factory.addBuilderCustomizers(builder -> {
 			builder.setServerOption(UndertowOptions.MAX_HEADER_SIZE, 1000000);
 			builder.setServerOption(UndertowOptions.MAX_ENTITY_SIZE, 10000000L);
-			System.out.println("✓✓✓ PROGRAMMATIC UNDERTOW PROPERTY SET: MAX_HEADER_SIZE=1000000 ✓✓✓");
+			logger.info("Undertow MAX_HEADER_SIZE=1000000, MAX_ENTITY_SIZE=10000000");
+		});
+	}
+
+	// Boot's spring.threads.virtual.enabled covers @Async and @Scheduled but not Undertow:
+	// dispatch servlet requests to virtual threads instead of the XNIO worker pool.
+	// CPU-bound SDitH work is kept off them by CryptoExecutor.
+	@Bean
+	@ConditionalOnThreading(Threading.VIRTUAL)
+	public WebServerFactoryCustomizer<UndertowServletWebServerFactory> virtualThreadCustomizer() {
+		return factory -> factory.addDeploymentInfoCustomizers(deployment -> {
+			ExecutorService executor = Executors
+					.newThreadPerTaskExecutor(Thread.ofVirtual().name("undertow-vt-", 0).factory());
+			deployment.setExecutor(executor);
+			deployment.setAsyncExecutor(executor);
 		});
 	}
 
@@ -0,0 +1,85 @@
+package com.talachibank.api.controller;
+
+import com.talachibank.api.dto.CursorPage;
+import com.talachibank.api.model.AuditLog;
+import com.talachibank.api.repository.AuditLogRepository;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.access.prepost.PreAuthorize;
+import org.springframework.web.bind.annotation.*;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+// Audit trail search for compliance. Keyset-paginated (newest first) and bounded in time
+@RestController
+@RequestMapping("/api/audit")
+@CrossOrigin(origins = "*")
+@PreAuthorize("hasRole('ADMIN')")
+public class AuditController {
+
+    private static final int DEFAULT_LIMIT = 50;
+    private static final int MAX_LIMIT = 500;
+
+    @Autowired
+    private AuditLogRepository auditLogRepository;
+
+    @GetMapping("/users/{userId}")
+    public ResponseEntity<CursorPage<AuditLog>> byUser(
+            @PathVariable Long userId,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime from,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime to,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(defaultValue = "" + DEFAULT_LIMIT) int limit) {
+        LocalDateTime upper = to != null ? to : LocalDateTime.now();
+        LocalDateTime lower = from != null ? from : upper.minusYears(1);
+        int size = clamp(limit);
+
+        LocalDateTime beforeTs = upper;
+        long beforeId = Long.MAX_VALUE;
+        if (cursor != null) {
+            String[] key = CursorPage.decodeCursor(cursor);
+            beforeTs = LocalDateTime.parse(key[0]);
+            beforeId = Long.parseLong(key[1]);
+        }
+
+        List<AuditLog> items = auditLogRepository.findUserPage(userId, lower, beforeTs, beforeId,
+                PageRequest.ofSize(size));
+        return ResponseEntity.ok(page(items, size));
+    }
+
+    @GetMapping("/transactions/{transactionId}")
+    public ResponseEntity<CursorPage<AuditLog>> byTransaction(
+            @PathVariable String transactionId,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(defaultValue = "" + DEFAULT_LIMIT) int limit) {
+        int size = clamp(limit);
+
+        LocalDateTime beforeTs = LocalDateTime.now();
+        long beforeId = Long.MAX_VALUE;
+        if (cursor != null) {
+            String[] key = CursorPage.decodeCursor(cursor);
+            beforeTs = LocalDateTime.parse(key[0]);
+            beforeId = Long.parseLong(key[1]);
+        }
+
+        List<AuditLog> items = auditLogRepository.findTransactionPage(transactionId, beforeTs, beforeId,
+                PageRequest.ofSize(size));
+        return ResponseEntity.ok(page(items, size));
+    }
+
+    private static int clamp(int limit) {
+        return Math.max(1, Math.min(limit, MAX_LIMIT));
+    }
+
+    private static CursorPage<AuditLog> page(List<AuditLog> items, int size) {
+        String next = null;
+        if (items.size() == size) {
+            AuditLog last = items.get(items.size() - 1);
+            next = CursorPage.encodeCursor(last.getTimestamp(), last.getId());
+        }
+        return new CursorPage<>(items, next);
+    }
+}
@@ -1,7 +1,10 @@
 package com.talachibank.api.controller;
 
 import com.talachibank.api.dto.*;
+import com.talachibank.api.exception.CryptoSaturatedException;
 import com.talachibank.api.service.AuthService;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
@@ -11,19 +14,23 @@ import jakarta.validation.Valid;
 @RestController
 @RequestMapping("/api/auth")
 public class AuthController {
+  private static final Logger logger = LoggerFactory.getLogger(AuthController.class);
+
   @Autowired
   AuthService authService;
 
   @PostMapping("/login")
   public ResponseEntity<?> authenticateUser(@Valid @RequestBody LoginRequest loginRequest) {
-    System.out.println("DEBUG: Login Request Received for user: " + loginRequest.getUsername());
+    logger.debug("Login request user={}", loginRequest.getUsername());
     try {
       JwtResponse response = authService.authenticateUser(
           loginRequest.getUsername(), loginRequest.getPassword());
       return ResponseEntity.ok(response);
+    } catch (CryptoSaturatedException e) {
+      throw e; // 503 + Retry-After (GlobalExceptionHandler)
     } catch (Exception e) {
-      System.out.println("DEBUG: Login Failed: " + e.getMessage());
-      e.printStackTrace();
+      // AuthService has already logged the failure
+      logger.debug("Login failed user={} reason={}", loginRequest.getUsername(), e.getMessage());
       return ResponseEntity.badRequest()
           .body(new MessageResponse("❌Error: " + e.getMessage()));
     }
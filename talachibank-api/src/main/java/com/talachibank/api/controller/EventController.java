@@ -0,0 +1,27 @@
+package com.talachibank.api.controller;
+
+import com.talachibank.api.service.AccountEventHub;
+import com.talachibank.api.service.UserDetailsImpl;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.MediaType;
+import org.springframework.security.core.annotation.AuthenticationPrincipal;
+import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+// Live account updates: "balance" and "transaction" events as Server-Sent Events
+@RestController
+@RequestMapping("/api/events")
+@CrossOrigin(origins = "*")
+public class EventController {
+
+    @Autowired
+    private AccountEventHub eventHub;
+
+    @GetMapping(value = "/stream", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    public SseEmitter stream(@AuthenticationPrincipal UserDetailsImpl principal) {
+        if (principal == null || principal.getAccountNumber() == null) {
+            throw new RuntimeException("No account for the current user");
+        }
+        return eventHub.subscribe(principal.getAccountNumber());
+    }
+}
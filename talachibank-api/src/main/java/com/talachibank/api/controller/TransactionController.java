@@ -1,16 +1,33 @@
 package com.talachibank.api.controller;
 
+import com.talachibank.api.dto.TransactionDetail;
 import com.talachibank.api.model.Transaction;
 import com.talachibank.api.model.User;
+import com.talachibank.api.service.StatementExportService;
 import com.talachibank.api.service.TransactionService;
 import com.talachibank.api.service.UserService;
+import jakarta.servlet.http.HttpServletRequest;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.ContentDisposition;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.NativeWebRequest;
+import org.springframework.web.context.request.async.AsyncWebRequest;
+import org.springframework.web.context.request.async.CallableProcessingInterceptor;
+import org.springframework.web.context.request.async.WebAsyncUtils;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
 import org.springframework.security.core.context.SecurityContextHolder;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
 import java.util.List;
+import java.util.Locale;
 import java.util.UUID;
+import java.util.concurrent.Callable;
 
 @RestController
 @RequestMapping("/api/transactions")
@@ -23,6 +40,12 @@ public class TransactionController {
     @Autowired
     private UserService userService; // To get current user
 
+    @Autowired
+    private StatementExportService statementExportService;
+
+    @Value("${talachibank.statements.timeout-ms:600000}")
+    private long statementTimeoutMs;
+
     @PostMapping
     public ResponseEntity<Transaction> createTransaction(@RequestBody Transaction tx) {
         String username = SecurityContextHolder.getContext().getAuthentication().getName();
@@ -54,10 +77,79 @@ public class TransactionController {
         return ResponseEntity.ok(transactionService.executeTransaction(id, user));
     }
 
+    // Full statement as CSV or NDJSON, streamed; memory use is independent of history length
+    @GetMapping("/statement")
+    public ResponseEntity<StreamingResponseBody> exportStatement(
+            @RequestParam(defaultValue = "csv") String format,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime from,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime to,
+            HttpServletRequest request) {
+        String username = SecurityContextHolder.getContext().getAuthentication().getName();
+        User user = userService.findByUsername(username);
+        StatementExportService.Format exportFormat = StatementExportService.Format.valueOf(format.toUpperCase(Locale.ROOT));
+        String account = user.getAccountNumber();
+        LocalDateTime start = from != null ? from : LocalDateTime.of(1970, 1, 1, 0, 0);
+        LocalDateTime end = to != null ? to : LocalDateTime.now().plusDays(1);
+
+        // Long downloads get their own async timeout; spring.mvc.async.request-timeout stays the default
+        WebAsyncUtils.getAsyncManager(request).registerCallableInterceptor(StatementExportService.class,
+                new CallableProcessingInterceptor() {
+                    @Override
+                    public <T> void beforeConcurrentHandling(NativeWebRequest webRequest, Callable<T> task) {
+                        if (webRequest instanceof AsyncWebRequest asyncRequest) {
+                            asyncRequest.setTimeout(statementTimeoutMs);
+                        }
+                    }
+                });
+
+        // 503 when too many exports already hold a connection; the slot is released once the body is written
+        statementExportService.reserveSlot();
+        boolean csv = exportFormat == StatementExportService.Format.CSV;
+        StreamingResponseBody body = out -> {
+            try {
+                statementExportService.writeStatement(account, start, end, exportFormat, out);
+            } finally {
+                statementExportService.releaseSlot();
+            }
+        };
+        return ResponseEntity.ok()
+                .contentType(csv ? new MediaType("text", "csv", StandardCharsets.UTF_8)
+                        : MediaType.parseMediaType("application/x-ndjson"))
+                .header(HttpHeaders.CONTENT_DISPOSITION, ContentDisposition.attachment()
+                        .filename("statement-" + account + (csv ? ".csv" : ".ndjson")).build().toString())
+                .body(body);
+    }
+
+    @GetMapping("/{id}")
+    public ResponseEntity<TransactionDetail> getTransaction(@PathVariable UUID id) {
+        String username = SecurityContextHolder.getContext().getAuthentication().getName();
+        User user = userService.findByUsername(username);
+        return ResponseEntity.ok(transactionService.getTransactionDetail(id, user));
+    }
+
+    // Raw signature bytes, fetched only when a client actually wants to check them
+    @GetMapping(value = "/{id}/signature", produces = MediaType.APPLICATION_OCTET_STREAM_VALUE)
+    public ResponseEntity<byte[]> getSignature(@PathVariable UUID id) {
+        String username = SecurityContextHolder.getContext().getAuthentication().getName();
+        User user = userService.findByUsername(username);
+        byte[] signature = transactionService.getTransactionSignature(id, user);
+        if (signature == null) {
+            return ResponseEntity.noContent().build();
+        }
+        return ResponseEntity.ok()
+                .contentLength(signature.length)
+                .body(signature);
+    }
+
+    // v1 contract: the whole history as a list; paged history is GET /api/v2/transactions
+    @Deprecated
     @GetMapping
     public ResponseEntity<List<Transaction>> getTransactions() {
         String username = SecurityContextHolder.getContext().getAuthentication().getName();
         User user = userService.findByUsername(username);
-        return ResponseEntity.ok(transactionService.getUserTransactions(user));
+        return ResponseEntity.ok()
+                .header("Deprecation", "true")
+                .header(HttpHeaders.LINK, "</api/v2/transactions>; rel=\"successor-version\"")
+                .body(transactionService.getUserTransactions(user));
     }
 }
@@ -0,0 +1,37 @@
+package com.talachibank.api.controller;
+
+import com.talachibank.api.dto.CursorPage;
+import com.talachibank.api.dto.TransactionSummary;
+import com.talachibank.api.model.User;
+import com.talachibank.api.service.TransactionService;
+import com.talachibank.api.service.UserService;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.web.bind.annotation.*;
+
+/**
+ * Version 2 of the history listing: keyset pages of summaries instead of the
+ * whole history as full entities ({@code GET /api/transactions}, v1).
+ */
+@RestController
+@RequestMapping("/api/v2/transactions")
+@CrossOrigin(origins = "*") // Allow localhost for demo
+public class TransactionHistoryController {
+
+    @Autowired
+    private TransactionService transactionService;
+
+    @Autowired
+    private UserService userService;
+
+    // History, newest first; pass back nextCursor to get the following page
+    @GetMapping
+    public ResponseEntity<CursorPage<TransactionSummary>> getTransactions(
+            @RequestParam(required = false) String cursor,
+            @RequestParam(defaultValue = "50") int limit) {
+        String username = SecurityContextHolder.getContext().getAuthentication().getName();
+        User user = userService.findByUsername(username);
+        return ResponseEntity.ok(transactionService.getTransactionPage(user, cursor, limit));
+    }
+}
@@ -1,12 +1,24 @@
 package com.talachibank.api.controller;
 
 import com.talachibank.api.model.User;
+import com.talachibank.api.service.BalanceCache;
+import com.talachibank.api.service.UserDetailsImpl;
 import com.talachibank.api.service.UserService;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.CacheControl;
 import org.springframework.http.ResponseEntity;
+import org.springframework.security.core.annotation.AuthenticationPrincipal;
 import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.util.DigestUtils;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
 
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
 import java.util.HashMap;
 import java.util.Map;
 
@@ -14,6 +26,7 @@ import java.util.Map;
 @RequestMapping("/api/user")
 @CrossOrigin(origins = "*")
 public class UserController {
+    private static final Logger logger = LoggerFactory.getLogger(UserController.class);
 
     @Autowired
     private UserService userService;
@@ -21,8 +34,52 @@ public class UserController {
     @Autowired
     private com.talachibank.api.repository.UserKeyPairRepository userKeyPairRepository;
 
+    @Autowired
+    private com.talachibank.api.service.LedgerService ledgerService;
+
+    @Autowired
+    private BalanceCache balanceCache;
+
+    // Served from BalanceCache and the authenticated principal, no entity load.
+    // Clients polling with If-None-Match get a 304 while the balance is unchanged.
     @GetMapping("/balance")
-    public ResponseEntity<?> getBalance() {
+    public ResponseEntity<?> getBalance(@AuthenticationPrincipal UserDetailsImpl principal, WebRequest request) {
+        if (principal == null || principal.getAccountNumber() == null) {
+            return ResponseEntity.notFound().build();
+        }
+
+        BigDecimal balance = balanceCache.get(principal.getAccountNumber());
+        if (balance == null) {
+            return ResponseEntity.notFound().build();
+        }
+
+        String etag = balanceEtag(principal, balance);
+        if (request.checkNotModified(etag)) {
+            return null; // 304, headers already set
+        }
+
+        Map<String, Object> response = new HashMap<>();
+        response.put("balance", balance);
+        response.put("accountNumber", principal.getAccountNumber());
+        response.put("username", principal.getUsername());
+        response.put("email", principal.getEmail());
+
+        return ResponseEntity.ok()
+                .eTag(etag)
+                .cacheControl(CacheControl.noCache().cachePrivate())
+                .body(response);
+    }
+
+    private static String balanceEtag(UserDetailsImpl principal, BigDecimal balance) {
+        String representation = principal.getAccountNumber() + "|" + balance.toPlainString() + "|"
+                + principal.getUsername() + "|" + principal.getEmail();
+        return "\"" + DigestUtils.md5DigestAsHex(representation.getBytes(StandardCharsets.UTF_8)) + "\"";
+    }
+
+    // Point-in-time balance rebuilt from the ledger (audits / statements)
+    @GetMapping("/balance/at")
+    public ResponseEntity<?> getBalanceAt(
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime timestamp) {
         String username = SecurityContextHolder.getContext().getAuthentication().getName();
         User user = userService.findByUsername(username);
 
@@ -31,10 +88,9 @@ public class UserController {
         }
 
         Map<String, Object> response = new HashMap<>();
-        response.put("balance", user.getBalance());
         response.put("accountNumber", user.getAccountNumber());
-        response.put("username", user.getUsername());
-        response.put("email", user.getEmail());
+        response.put("timestamp", timestamp);
+        response.put("balance", ledgerService.balanceAt(user.getAccountNumber(), timestamp));
 
         return ResponseEntity.ok(response);
     }
@@ -48,7 +104,7 @@ public class UserController {
 
     @PostMapping("/recharge")
     public ResponseEntity<?> recharge(@RequestBody Map<String, java.math.BigDecimal> request) {
-        System.out.println("DEBUG: Recharge Request Received - Amount: " + request.get("amount"));
+        logger.debug("Recharge request amount={}", request.get("amount"));
         String username = SecurityContextHolder.getContext().getAuthentication().getName();
         User user = userService.findByUsername(username);
 
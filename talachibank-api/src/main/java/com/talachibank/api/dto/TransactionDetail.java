@@ -0,0 +1,43 @@
+package com.talachibank.api.dto;
+
+import com.talachibank.api.model.TransactionStatus;
+import com.talachibank.api.model.TransactionType;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.UUID;
+
+// Detail view: summary fields plus the signed hash. The signature itself is fetched
+// separately from /api/transactions/{id}/signature, only its size is reported here
+@Data
+@AllArgsConstructor
+public class TransactionDetail {
+    private UUID transactionId;
+    private TransactionType transactionType;
+    private String fromAccountNumber;
+    private String toAccountNumber;
+    private String beneficiaryName;
+    private BigDecimal amount;
+    private String currency;
+    private String description;
+    private LocalDateTime initiatedAt;
+    private TransactionStatus status;
+    private Integer riskScore;
+    private Integer signatureLevel;
+    private Boolean signatureVerified;
+    private LocalDateTime executedAt;
+    private String transactionHash;
+    private Integer signatureSize;
+
+    // JPQL projection; the signature size is filled in separately (see TransactionRepository#findSignatureSizeById)
+    public TransactionDetail(UUID transactionId, TransactionType transactionType, String fromAccountNumber,
+            String toAccountNumber, String beneficiaryName, BigDecimal amount, String currency, String description,
+            LocalDateTime initiatedAt, TransactionStatus status, Integer riskScore, Integer signatureLevel,
+            Boolean signatureVerified, LocalDateTime executedAt, String transactionHash) {
+        this(transactionId, transactionType, fromAccountNumber, toAccountNumber, beneficiaryName, amount, currency,
+                description, initiatedAt, status, riskScore, signatureLevel, signatureVerified, executedAt,
+                transactionHash, null);
+    }
+}
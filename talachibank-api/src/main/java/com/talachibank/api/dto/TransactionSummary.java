@@ -0,0 +1,30 @@
+package com.talachibank.api.dto;
+
+import com.talachibank.api.model.TransactionStatus;
+import com.talachibank.api.model.TransactionType;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.UUID;
+
+// List-view row: built by constructor expression, so no signature bytes, no collections, no User join
+@Data
+@AllArgsConstructor
+public class TransactionSummary {
+    private UUID transactionId;
+    private TransactionType transactionType;
+    private String fromAccountNumber;
+    private String toAccountNumber;
+    private String beneficiaryName;
+    private BigDecimal amount;
+    private String currency;
+    private String description;
+    private LocalDateTime initiatedAt;
+    private TransactionStatus status;
+    private Integer riskScore;
+    private Integer signatureLevel;
+    private Boolean signatureVerified;
+    private LocalDateTime executedAt;
+}
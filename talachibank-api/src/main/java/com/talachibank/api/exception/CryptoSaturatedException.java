@@ -0,0 +1,12 @@
+package com.talachibank.api.exception;
+
+/**
+ * Thrown when the SDitH crypto pool is saturated and the operation was shed
+ * instead of queued. Mapped to 503 with a Retry-After header.
+ */
+public class CryptoSaturatedException extends ServiceSaturatedException {
+
+    public CryptoSaturatedException(String message, long retryAfterSeconds) {
+        super(message, retryAfterSeconds);
+    }
+}
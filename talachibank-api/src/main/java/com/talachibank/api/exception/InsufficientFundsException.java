@@ -0,0 +1,12 @@
+package com.talachibank.api.exception;
+
+/**
+ * Thrown when a transfer's debit finds the sender's balance too low. The
+ * transfer is marked FAILED once the attempt has rolled back.
+ */
+public class InsufficientFundsException extends RuntimeException {
+
+    public InsufficientFundsException(String message) {
+        super(message);
+    }
+}
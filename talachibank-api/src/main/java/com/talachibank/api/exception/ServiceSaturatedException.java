@@ -0,0 +1,18 @@
+package com.talachibank.api.exception;
+
+/**
+ * Thrown when work is shed instead of queued because a bounded queue is full.
+ * Mapped to 503 with a Retry-After header.
+ */
+public class ServiceSaturatedException extends RuntimeException {
+    private final long retryAfterSeconds;
+
+    public ServiceSaturatedException(String message, long retryAfterSeconds) {
+        super(message);
+        this.retryAfterSeconds = retryAfterSeconds;
+    }
+
+    public long getRetryAfterSeconds() {
+        return retryAfterSeconds;
+    }
+}
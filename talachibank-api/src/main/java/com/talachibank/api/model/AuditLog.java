@@ -8,7 +8,10 @@ import lombok.AllArgsConstructor;
 import java.time.LocalDateTime;
 
 @Entity
-@Table(name = "audit_logs")
+@Table(name = "audit_logs", indexes = {
+        @Index(name = "idx_audit_user_time", columnList = "user_id, timestamp"),
+        @Index(name = "idx_audit_transaction", columnList = "transaction_id")
+})
 @Data
 @NoArgsConstructor
 @AllArgsConstructor
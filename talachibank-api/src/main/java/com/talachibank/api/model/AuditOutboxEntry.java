@@ -0,0 +1,44 @@
+package com.talachibank.api.model;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+/**
+ * Audit event written in the same database transaction as the business change
+ * it describes; {@code AuditOutboxRelay} later moves it into {@code audit_logs}.
+ */
+@Entity
+@Table(name = "audit_outbox")
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class AuditOutboxEntry {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Column(name = "user_id")
+    private Long userId;
+
+    @Column(nullable = false, length = 40)
+    private String action;
+
+    @Column(name = "transaction_id", length = 64)
+    private String transactionId;
+
+    @Column(name = "ip_address", length = 45)
+    private String ipAddress;
+
+    @Column(columnDefinition = "text")
+    private String details;
+
+    @Column(name = "created_at", nullable = false)
+    private LocalDateTime createdAt;
+}
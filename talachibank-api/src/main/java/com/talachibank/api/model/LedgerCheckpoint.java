@@ -0,0 +1,41 @@
+package com.talachibank.api.model;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import org.hibernate.annotations.Immutable;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+
+/**
+ * An account's ledger balance as of a cutoff, so point-in-time balances only
+ * sum the entries after the latest checkpoint instead of the whole history.
+ * Written by {@link com.talachibank.api.service.LedgerMaintenance}.
+ */
+@Entity
+@Immutable
+@Table(name = "ledger_checkpoints", uniqueConstraints = {
+        @UniqueConstraint(name = "uk_ledger_checkpoint_account_time", columnNames = { "account_number", "as_of" })
+})
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class LedgerCheckpoint {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Column(name = "account_number", nullable = false)
+    private String accountNumber;
+
+    @Column(name = "as_of", nullable = false)
+    private LocalDateTime asOf; // entries created up to and including this instant
+
+    @Column(nullable = false, precision = 38, scale = 2)
+    private BigDecimal balance;
+}
@@ -0,0 +1,58 @@
+package com.talachibank.api.model;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import org.hibernate.annotations.Immutable;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.UUID;
+
+/**
+ * One side of a double-entry posting. Rows are only ever inserted: every
+ * executed transfer produces a DEBIT for the sender and a CREDIT for the
+ * recipient, so an account's balance at any instant is the sum of its entries
+ * up to that instant.
+ */
+@Entity
+@Immutable
+@Table(name = "ledger_entries", indexes = {
+        @Index(name = "idx_ledger_account_time", columnList = "account_number, created_at"),
+        @Index(name = "idx_ledger_transaction", columnList = "transaction_id")
+})
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class LedgerEntry {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Column(name = "transaction_id")
+    private UUID transactionId; // null for recharges, opening balances and backfills
+
+    @Column(name = "account_number", nullable = false)
+    private String accountNumber;
+
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false, length = 6)
+    private Direction direction;
+
+    @Column(nullable = false, precision = 38, scale = 2)
+    private BigDecimal amount;
+
+    @Column(length = 20)
+    private String reference; // TRANSFER, RECHARGE, OPENING, BACKFILL, REVERSAL
+
+    @Column(name = "created_at", nullable = false)
+    private LocalDateTime createdAt;
+
+    public enum Direction {
+        DEBIT, CREDIT
+    }
+}
@@ -0,0 +1,44 @@
+package com.talachibank.api.model;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+/**
+ * A pre-generated SDitH key pair waiting to be handed out (see KeyPoolService).
+ * The private key is stored AES-GCM encrypted: 12-byte IV followed by the
+ * ciphertext and tag.
+ */
+@Entity
+@Table(name = "key_pool", indexes = {
+        @Index(name = "idx_key_pool_level", columnList = "security_level, id")
+})
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class PooledKeyPair {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Column(name = "security_level", nullable = false)
+    private Integer securityLevel; // 128, 192, 256
+
+    @Column(columnDefinition = "BYTEA", nullable = false)
+    private byte[] publicKey;
+
+    @Column(columnDefinition = "BYTEA", nullable = false)
+    private byte[] syndrome;
+
+    @Column(columnDefinition = "BYTEA", nullable = false)
+    private byte[] privateKeyCiphertext;
+
+    @Column(nullable = false)
+    private LocalDateTime createdAt;
+}
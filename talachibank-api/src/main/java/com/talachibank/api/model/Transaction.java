@@ -16,7 +16,11 @@ import java.util.Map;
 import java.util.UUID;
 
 @Entity
-@Table(name = "transactions")
+@Table(name = "transactions", indexes = {
+        @Index(name = "idx_tx_pending_credit", columnList = "credit_posted, status"),
+        @Index(name = "idx_tx_from_history", columnList = "from_account_number, initiated_at, transaction_id"),
+        @Index(name = "idx_tx_to_history", columnList = "to_account_number, initiated_at, transaction_id")
+})
 @Data
 @Builder
 @NoArgsConstructor
@@ -59,7 +63,9 @@ public class Transaction {
     @Column(columnDefinition = "TEXT")
     private String transactionHash; // SHA3-256 of fields
 
+    // Several KB; served separately by GET /api/transactions/{id}/signature
     @Column(columnDefinition = "BYTEA")
+    @JsonIgnore
     private byte[] sdithSignature;
 
     private Boolean signatureVerified;
@@ -78,6 +84,10 @@ public class Transaction {
 
     private LocalDateTime executedAt;
 
+    // False while the recipient credit is waiting in the credit batch (see CreditAggregator)
+    @JsonIgnore
+    private Boolean creditPosted;
+
     // Compliance
     @ElementCollection
     @JsonIgnore
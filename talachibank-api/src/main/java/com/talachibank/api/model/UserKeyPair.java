@@ -50,6 +50,7 @@ public class UserKeyPair {
     private Integer usageCount = 0;
 
     public enum KeyStatus {
+        PENDING, // key material still being generated (KeyProvisioningService)
         ACTIVE, REVOKED, EXPIRED
     }
 }
@@ -1,13 +1,29 @@
 package com.talachibank.api.repository;
 
 import com.talachibank.api.model.AuditLog;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
+
+import java.time.LocalDateTime;
 import java.util.List;
 
 @Repository
 public interface AuditLogRepository extends JpaRepository<AuditLog, Long> {
-    List<AuditLog> findByTransactionId(String transactionId);
 
-    List<AuditLog> findByUserId(Long userId);
+    // Keyset pages, newest first. The timestamp bounds let PostgreSQL prune
+    // monthly partitions; (user_id, timestamp) is served by idx_audit_user_time.
+    @Query("select a from AuditLog a where a.userId = :userId and a.timestamp >= :from "
+            + "and (a.timestamp < :beforeTs or (a.timestamp = :beforeTs and a.id < :beforeId)) "
+            + "order by a.timestamp desc, a.id desc")
+    List<AuditLog> findUserPage(@Param("userId") Long userId, @Param("from") LocalDateTime from,
+            @Param("beforeTs") LocalDateTime beforeTs, @Param("beforeId") Long beforeId, Pageable pageable);
+
+    @Query("select a from AuditLog a where a.transactionId = :transactionId "
+            + "and (a.timestamp < :beforeTs or (a.timestamp = :beforeTs and a.id < :beforeId)) "
+            + "order by a.timestamp desc, a.id desc")
+    List<AuditLog> findTransactionPage(@Param("transactionId") String transactionId,
+            @Param("beforeTs") LocalDateTime beforeTs, @Param("beforeId") Long beforeId, Pageable pageable);
 }
@@ -0,0 +1,29 @@
+package com.talachibank.api.repository;
+
+import com.talachibank.api.model.AuditOutboxEntry;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.util.List;
+
+@Repository
+public interface AuditOutboxRepository extends JpaRepository<AuditOutboxEntry, Long> {
+
+    // SKIP LOCKED lets several relay instances work on disjoint batches
+    @Query(value = "select id from audit_outbox order by id limit :limit for update skip locked",
+            nativeQuery = true)
+    List<Long> lockBatch(@Param("limit") int limit);
+
+    @Modifying
+    @Query(value = "insert into audit_logs (user_id, action, transaction_id, timestamp, ip_address, user_agent, details) "
+            + "select user_id, action, transaction_id, created_at, ip_address, :userAgent, details "
+            + "from audit_outbox where id in (:ids) order by id", nativeQuery = true)
+    int copyToAuditLogs(@Param("ids") List<Long> ids, @Param("userAgent") String userAgent);
+
+    @Modifying
+    @Query(value = "delete from audit_outbox where id in (:ids)", nativeQuery = true)
+    int deleteBatch(@Param("ids") List<Long> ids);
+}
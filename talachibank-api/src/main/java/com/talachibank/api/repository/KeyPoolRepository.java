@@ -0,0 +1,20 @@
+package com.talachibank.api.repository;
+
+import com.talachibank.api.model.PooledKeyPair;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.util.Optional;
+
+@Repository
+public interface KeyPoolRepository extends JpaRepository<PooledKeyPair, Long> {
+
+    long countBySecurityLevel(Integer securityLevel);
+
+    // Oldest free key of the level, locked; SKIP LOCKED lets concurrent takers get different keys
+    @Query(value = "select * from key_pool where security_level = :level order by id limit 1 "
+            + "for update skip locked", nativeQuery = true)
+    Optional<PooledKeyPair> lockNext(@Param("level") int securityLevel);
+}
@@ -0,0 +1,20 @@
+package com.talachibank.api.repository;
+
+import com.talachibank.api.model.LedgerCheckpoint;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDateTime;
+import java.util.Optional;
+
+@Repository
+public interface LedgerCheckpointRepository extends JpaRepository<LedgerCheckpoint, Long> {
+
+    // Served by uk_ledger_checkpoint_account_time
+    Optional<LedgerCheckpoint> findFirstByAccountNumberAndAsOfLessThanEqualOrderByAsOfDesc(String accountNumber,
+            LocalDateTime at);
+
+    @Query("select max(c.asOf) from LedgerCheckpoint c")
+    LocalDateTime findLatestAsOf();
+}
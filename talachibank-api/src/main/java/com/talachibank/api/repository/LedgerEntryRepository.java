@@ -0,0 +1,43 @@
+package com.talachibank.api.repository;
+
+import com.talachibank.api.model.LedgerEntry;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+import java.util.UUID;
+
+@Repository
+public interface LedgerEntryRepository extends JpaRepository<LedgerEntry, Long> {
+
+    List<LedgerEntry> findByTransactionId(UUID transactionId);
+
+    // Served by idx_ledger_account_time
+    @Query("select coalesce(sum(case when e.direction = :credit then e.amount else -e.amount end), 0) "
+            + "from LedgerEntry e where e.accountNumber = :accountNumber and e.createdAt <= :at")
+    BigDecimal sumUpTo(@Param("accountNumber") String accountNumber, @Param("at") LocalDateTime at,
+            @Param("credit") LedgerEntry.Direction credit);
+
+    @Query("select coalesce(sum(case when e.direction = :credit then e.amount else -e.amount end), 0) "
+            + "from LedgerEntry e where e.accountNumber = :accountNumber and e.createdAt > :after "
+            + "and e.createdAt <= :at")
+    BigDecimal sumBetween(@Param("accountNumber") String accountNumber, @Param("after") LocalDateTime after,
+            @Param("at") LocalDateTime at, @Param("credit") LedgerEntry.Direction credit);
+
+    @Query("select coalesce(sum(case when e.direction = :credit then e.amount else -e.amount end), 0) "
+            + "from LedgerEntry e where e.accountNumber = :accountNumber")
+    BigDecimal sumAll(@Param("accountNumber") String accountNumber, @Param("credit") LedgerEntry.Direction credit);
+
+    @Query("select min(e.createdAt) from LedgerEntry e where e.accountNumber = :accountNumber")
+    LocalDateTime findFirstEntryTime(@Param("accountNumber") String accountNumber);
+
+    // The entry from which an account's history is complete (OPENING or BACKFILL)
+    Optional<LedgerEntry> findFirstByAccountNumberAndReferenceInOrderByCreatedAtAsc(String accountNumber,
+            Collection<String> references);
+}
@@ -1,22 +1,110 @@
 package com.talachibank.api.repository;
 
+import com.talachibank.api.dto.TransactionDetail;
+import com.talachibank.api.dto.TransactionSummary;
 import com.talachibank.api.model.Transaction;
 import com.talachibank.api.model.TransactionStatus;
 import com.talachibank.api.model.User;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import jakarta.persistence.LockModeType;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
 import java.time.LocalDateTime;
 import java.util.List;
+import java.util.Optional;
 import java.util.UUID;
+import java.util.stream.Stream;
 
 @Repository
 public interface TransactionRepository extends JpaRepository<Transaction, UUID> {
 
     List<Transaction> findByInitiatedBy(User user);
 
+    // Row lock so that the same transaction cannot be executed twice concurrently
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("select t from Transaction t where t.transactionId = :id")
+    Optional<Transaction> findByIdForUpdate(@Param("id") UUID id);
+
+    @Query("select t.toAccountNumber from Transaction t where t.transactionId = :id")
+    Optional<String> findToAccountNumberByTransactionId(@Param("id") UUID id);
+
+    // Executed transactions whose recipient credit is still pending:
+    // [transaction_id, to_account_number, amount, from_account_number].
+    // SKIP LOCKED lets several instances drain the backlog without waiting on each other.
+    @Query(value = "select transaction_id, to_account_number, amount, from_account_number from transactions "
+            + "where credit_posted = false and status = 'EXECUTED' "
+            + "order by executed_at limit :limit for update skip locked", nativeQuery = true)
+    List<Object[]> lockPendingCredits(@Param("limit") int limit);
+
+    @Modifying
+    @Query("update Transaction t set t.creditPosted = true where t.transactionId in :ids")
+    int markCreditsPosted(@Param("ids") List<UUID> ids);
+
+    @Modifying
+    @Query("update Transaction t set t.status = :status where t.transactionId in :ids")
+    int updateStatus(@Param("ids") List<UUID> ids, @Param("status") TransactionStatus status);
+
+    // History keyset pages, newest first, one per side of the transfer. Each is a single range scan on
+    // idx_tx_from_history / idx_tx_to_history; TransactionService merges the two.
+    String SUMMARY = "select new com.talachibank.api.dto.TransactionSummary(t.transactionId, t.transactionType, "
+            + "t.fromAccountNumber, t.toAccountNumber, t.beneficiaryName, t.amount, t.currency, t.description, "
+            + "t.initiatedAt, t.status, t.riskScore, t.signatureLevel, t.signatureVerified, t.executedAt) "
+            + "from Transaction t ";
+
+    @Query(SUMMARY + "where t.fromAccountNumber = :account "
+            + "and (t.initiatedAt < :beforeTs or (t.initiatedAt = :beforeTs and t.transactionId < :beforeId)) "
+            + "order by t.initiatedAt desc, t.transactionId desc")
+    List<TransactionSummary> findSentPage(@Param("account") String account,
+            @Param("beforeTs") LocalDateTime beforeTs, @Param("beforeId") UUID beforeId, Pageable pageable);
+
+    @Query(SUMMARY + "where t.toAccountNumber = :account "
+            + "and (t.initiatedAt < :beforeTs or (t.initiatedAt = :beforeTs and t.transactionId < :beforeId)) "
+            + "order by t.initiatedAt desc, t.transactionId desc")
+    List<TransactionSummary> findReceivedPage(@Param("account") String account,
+            @Param("beforeTs") LocalDateTime beforeTs, @Param("beforeId") UUID beforeId, Pageable pageable);
+
+    @Query("select new com.talachibank.api.dto.TransactionDetail(t.transactionId, t.transactionType, "
+            + "t.fromAccountNumber, t.toAccountNumber, t.beneficiaryName, t.amount, t.currency, t.description, "
+            + "t.initiatedAt, t.status, t.riskScore, t.signatureLevel, t.signatureVerified, t.executedAt, "
+            + "t.transactionHash) "
+            + "from Transaction t where t.transactionId = :id")
+    Optional<TransactionDetail> findDetailById(@Param("id") UUID id);
+
+    // Native: JPQL has no length function for byte[] attributes
+    @Query(value = "select octet_length(sdith_signature) from transactions where transaction_id = :id",
+            nativeQuery = true)
+    Integer findSignatureSizeById(@Param("id") UUID id);
+
+    @Query("select t.sdithSignature from Transaction t where t.transactionId = :id")
+    Optional<byte[]> findSignatureById(@Param("id") UUID id);
+
+    // Rows per JDBC round trip when streaming a statement
+    String STATEMENT_FETCH_SIZE = "500";
+
+    // Statement legs, oldest first, read as forward-only streams and merged by StatementExportService.
+    // Each is a range scan on idx_tx_from_history / idx_tx_to_history, already in index order.
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = STATEMENT_FETCH_SIZE))
+    @Query(SUMMARY + "where t.fromAccountNumber = :account and t.initiatedAt >= :from and t.initiatedAt < :to "
+            + "order by t.initiatedAt, t.transactionId")
+    Stream<TransactionSummary> streamSentStatement(@Param("account") String account,
+            @Param("from") LocalDateTime from, @Param("to") LocalDateTime to);
+
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = STATEMENT_FETCH_SIZE))
+    @Query(SUMMARY + "where t.toAccountNumber = :account and t.initiatedAt >= :from and t.initiatedAt < :to "
+            + "order by t.initiatedAt, t.transactionId")
+    Stream<TransactionSummary> streamReceivedStatement(@Param("account") String account,
+            @Param("from") LocalDateTime from, @Param("to") LocalDateTime to);
+
+    // Unbounded legacy history behind the v1 GET /api/transactions
     List<Transaction> findByInitiatedByOrToAccountNumberOrderByInitiatedAtDesc(User user, String toAccountNumber);
 
     Page<Transaction> findByStatus(TransactionStatus status, Pageable pageable);
@@ -3,8 +3,13 @@ package com.talachibank.api.repository;
 import com.talachibank.api.model.User;
 import com.talachibank.api.model.UserKeyPair;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
 
+import java.time.LocalDateTime;
 import java.util.List;
 import java.util.Optional;
 
@@ -19,4 +24,16 @@ public interface UserKeyPairRepository extends JpaRepository<UserKeyPair, Long>
     List<UserKeyPair> findByUserAndStatus(User user, UserKeyPair.KeyStatus status);
     
     UserKeyPair findTopByUserAndStatusOrderByCreatedAtDesc(User user, UserKeyPair.KeyStatus status);
+
+    List<UserKeyPair> findTop100ByStatusAndCreatedAtBefore(UserKeyPair.KeyStatus status, LocalDateTime before);
+
+    // Stores generated key material and moves the key from :pending to :active, only if it is still :pending
+    @Transactional
+    @Modifying
+    @Query("update UserKeyPair k set k.publicKey = :publicKey, k.syndrome = :syndrome, "
+            + "k.privateKeyEncrypted = :privateKey, k.status = :active "
+            + "where k.id = :id and k.status = :pending")
+    int activate(@Param("id") Long id, @Param("publicKey") byte[] publicKey, @Param("syndrome") byte[] syndrome,
+            @Param("privateKey") byte[] privateKey, @Param("active") UserKeyPair.KeyStatus active,
+            @Param("pending") UserKeyPair.KeyStatus pending);
 }
@@ -1,9 +1,16 @@
 package com.talachibank.api.repository;
 
 import com.talachibank.api.model.User;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.math.BigDecimal;
+import java.util.Collection;
+import java.util.List;
 import java.util.Optional;
 
 @Repository
@@ -12,7 +19,38 @@ public interface UserRepository extends JpaRepository<User, Long> {
 
     Optional<User> findByAccountNumber(String accountNumber);
 
+    @Query("select u.balance from User u where u.accountNumber = :accountNumber")
+    Optional<BigDecimal> findBalanceByAccountNumber(@Param("accountNumber") String accountNumber);
+
+    // Keyset page of users that have no key pair at all (DatabaseSeeder)
+    @Query("select u.id from User u where u.id > :afterId "
+            + "and not exists (select 1 from UserKeyPair k where k.user = u) order by u.id")
+    List<Long> findIdsWithoutKeys(@Param("afterId") Long afterId, Pageable pageable);
+
+    @Query("select u.accountNumber from User u where u.accountNumber in :accountNumbers")
+    List<String> findExistingAccountNumbers(@Param("accountNumbers") Collection<String> accountNumbers);
+
     Boolean existsByUsername(String username);
 
     Boolean existsByEmail(String email);
+
+    /**
+     * Atomically debits the account if (and only if) it holds enough funds.
+     *
+     * @return 1 if the account was debited, 0 if funds were insufficient
+     */
+    @Modifying(flushAutomatically = true)
+    @Query("update User u set u.balance = u.balance - :amount, u.updatedAt = local datetime "
+            + "where u.id = :id and u.balance >= :amount")
+    int debit(@Param("id") Long id, @Param("amount") BigDecimal amount);
+
+    /**
+     * Atomically credits the account.
+     *
+     * @return 1 if the account was credited, 0 if it does not exist
+     */
+    @Modifying(flushAutomatically = true)
+    @Query("update User u set u.balance = u.balance + :amount, u.updatedAt = local datetime "
+            + "where u.accountNumber = :accountNumber")
+    int credit(@Param("accountNumber") String accountNumber, @Param("amount") BigDecimal amount);
 }
@@ -1,9 +1,12 @@
 package com.talachibank.api.security;
 
+import com.talachibank.api.exception.CryptoSaturatedException;
 import com.talachibank.api.service.UserDetailsServiceImpl;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
 import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
 import org.springframework.security.core.context.SecurityContextHolder;
 import org.springframework.security.core.userdetails.UserDetails;
@@ -79,6 +82,13 @@ public class AuthTokenFilter extends OncePerRequestFilter {
                     logger.warn("✗ Invalid/Expired JWT token found in request to {}", request.getRequestURI());
                 }
             }
+        } catch (CryptoSaturatedException e) {
+            logger.warn("✗ Signature service saturated, rejecting {}", request.getRequestURI());
+            response.setStatus(HttpServletResponse.SC_SERVICE_UNAVAILABLE);
+            response.setHeader(HttpHeaders.RETRY_AFTER, String.valueOf(e.getRetryAfterSeconds()));
+            response.setContentType(MediaType.APPLICATION_JSON_VALUE);
+            response.getWriter().write("{\"message\":\"" + e.getMessage() + "\",\"status\":503}");
+            return;
         } catch (Exception e) {
             logger.error("✗ Cannot set user authentication: {}", e.getMessage());
         }
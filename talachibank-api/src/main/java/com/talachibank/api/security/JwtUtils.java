@@ -1,9 +1,11 @@
 package com.talachibank.api.security;
 
+import com.talachibank.api.exception.CryptoSaturatedException;
 import com.talachibank.api.service.SDitHTokenService;
 import com.talachibank.api.service.TokenBlacklistService;
 import io.jsonwebtoken.*;
 import io.jsonwebtoken.security.Keys;
+import io.micrometer.core.instrument.MeterRegistry;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
@@ -33,6 +35,9 @@ public class JwtUtils {
     @Autowired
     private TokenBlacklistService blacklistService;
 
+    @Autowired
+    private MeterRegistry meterRegistry;
+
     private SecretKey getSigningKey() {
         byte[] keyBytes = jwtSecret.getBytes(StandardCharsets.UTF_8);
         return Keys.hmacShaKeyFor(keyBytes);
@@ -54,6 +59,8 @@ public class JwtUtils {
             logger.info("Token signed successfully with SDitH signature");
 
             return signedToken;
+        } catch (CryptoSaturatedException e) {
+            throw e;
         } catch (Exception e) {
             logger.error("JWT generation failed: {}", e.getMessage(), e);
             throw new RuntimeException("Token signing failed: " + e.getMessage(), e);
@@ -72,9 +79,11 @@ public class JwtUtils {
     }
 
     public boolean validateJwtToken(String authToken) {
+        String outcome = "error";
         try {
             if (blacklistService.isBlacklisted(authToken)) {
                 logger.warn("Token is blacklisted");
+                outcome = "blacklisted";
                 return false;
             }
 
@@ -82,6 +91,7 @@ public class JwtUtils {
             if (authToken.chars().filter(ch -> ch == '.').count() >= 3) {
                 if (!tokenService.verifyTokenSignature(authToken)) {
                     logger.error("Invalid SDitH signature");
+                    outcome = "invalid_sdith_signature";
                     return false;
                 }
             }
@@ -94,19 +104,31 @@ public class JwtUtils {
                     .build()
                     .parseSignedClaims(unsignedToken);
 
+            outcome = "valid";
             return true;
+        } catch (CryptoSaturatedException e) {
+            // Not an invalid token: let the caller answer 503
+            outcome = "saturated";
+            throw e;
         } catch (SecurityException e) {
             logger.error("Invalid JWT signature: {}", e.getMessage());
+            outcome = "invalid_signature";
         } catch (MalformedJwtException e) {
             logger.error("Invalid JWT token: {}", e.getMessage());
+            outcome = "malformed";
         } catch (ExpiredJwtException e) {
             logger.error("JWT token is expired: {}", e.getMessage());
+            outcome = "expired";
         } catch (UnsupportedJwtException e) {
             logger.error("JWT token is unsupported: {}", e.getMessage());
+            outcome = "unsupported";
         } catch (IllegalArgumentException e) {
             logger.error("JWT claims string is empty: {}", e.getMessage());
+            outcome = "empty";
         } catch (Exception e) {
             logger.error("Unexpected error: {}", e.getMessage(), e);
+        } finally {
+            meterRegistry.counter("talachibank.jwt.validation", "outcome", outcome).increment();
         }
         return false;
     }
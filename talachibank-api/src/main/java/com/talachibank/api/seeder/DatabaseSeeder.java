@@ -1,25 +1,45 @@
 package com.talachibank.api.seeder;
 
+import com.talachibank.api.exception.CryptoSaturatedException;
 import com.talachibank.api.model.ERole;
 import com.talachibank.api.model.Role;
 import com.talachibank.api.model.User;
 import com.talachibank.api.model.UserKeyPair;
-import com.talachibank.api.repository.UserKeyPairRepository;
 import com.talachibank.api.repository.UserRepository;
 import com.talachibank.api.repository.RoleRepository;
+import com.talachibank.api.service.KeyPoolService;
+import com.talachibank.api.service.LedgerService;
 import com.talachibank.api.service.SDitHTokenService;
+import com.talachibank.signature.core.SDitHParameters;
+import com.talachibank.signature.core.SDithKeyPair;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.boot.CommandLineRunner;
+import org.springframework.core.annotation.Order;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.jdbc.core.JdbcTemplate;
 import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.stereotype.Component;
-import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
 
 import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
 import java.util.HashSet;
+import java.util.List;
+import java.util.Optional;
 import java.util.Set;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
 
 @Component
+@Order(1)
 public class DatabaseSeeder implements CommandLineRunner {
+    private static final Logger logger = LoggerFactory.getLogger(DatabaseSeeder.class);
 
     @Autowired
     private UserRepository userRepository;
@@ -31,22 +51,44 @@ public class DatabaseSeeder implements CommandLineRunner {
     private PasswordEncoder encoder;
 
     @Autowired
-    private UserKeyPairRepository userKeyPairRepository;
+    private SDitHTokenService sdithTokenService;
 
     @Autowired
-    private SDitHTokenService sdithTokenService;
+    private LedgerService ledgerService;
+
+    @Autowired
+    private KeyPoolService keyPoolService;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    @Value("${talachibank.seeder.key-batch-size:500}")
+    private int keyBatchSize;
+
+    // 0 = one worker per core
+    @Value("${talachibank.seeder.key-parallelism:0}")
+    private int keyParallelism;
+
+    private static final String INSERT_KEY = "insert into user_key_pairs (user_id, public_key, syndrome, "
+            + "private_key_encrypted, security_level, status, created_at, usage_count) "
+            + "values (?, ?, ?, ?, ?, ?, ?, 0)";
 
     @Override
-    @Transactional
     public void run(String... args) throws Exception {
-        System.out.println("--- TALACHI BANK DATABASE SEEDING ---");
+        logger.info("--- TALACHI BANK DATABASE SEEDING ---");
 
-        seedRoles();
-        seedAdminUser();
-        seedDefaultUsers();
+        // Each user row and its opening ledger entry commit together; key seeding runs outside
+        transactionTemplate.executeWithoutResult(status -> {
+            seedRoles();
+            seedAdminUser();
+            seedDefaultUsers();
+        });
         seedKeysForAll();
 
-        System.out.println("--- SEEDING COMPLETED ---");
+        logger.info("--- SEEDING COMPLETED ---");
     }
 
     private void seedRoles() {
@@ -54,7 +96,7 @@ public class DatabaseSeeder implements CommandLineRunner {
             roleRepository.save(new Role(ERole.ROLE_USER));
             roleRepository.save(new Role(ERole.ROLE_MODERATOR));
             roleRepository.save(new Role(ERole.ROLE_ADMIN));
-            System.out.println("Roles seeded.");
+            logger.info("Roles seeded.");
         }
     }
 
@@ -71,7 +113,8 @@ public class DatabaseSeeder implements CommandLineRunner {
             admin.setRoles(roles);
 
             userRepository.save(admin);
-            System.out.println("Admin user seeded: " + admin.getAccountNumber());
+            ledgerService.recordOpeningBalance(admin.getAccountNumber(), admin.getBalance());
+            logger.info("Admin user seeded: {}", admin.getAccountNumber());
         }
     }
 
@@ -84,29 +127,91 @@ public class DatabaseSeeder implements CommandLineRunner {
             roles.add(roleRepository.findByName(ERole.ROLE_USER).get());
             user.setRoles(roles);
             userRepository.save(user);
+            ledgerService.recordOpeningBalance(user.getAccountNumber(), user.getBalance());
         }
     }
 
+    /**
+     * Gives every user without a key pair an ACTIVE L1 key.
+     *
+     * <p>
+     * Users are read by id in keyset pages with a single anti-join query, so a
+     * restored database with many users is never loaded into memory at once.
+     * Each page's keys are produced in parallel (from the pre-generated pool
+     * when it has stock, by SDitH keygen on the crypto executor otherwise) and
+     * written with one JDBC batch.
+     */
     private void seedKeysForAll() {
-        userRepository.findAll().forEach(user -> {
-            if (userKeyPairRepository.findByUser(user).isEmpty()) {
-                try {
-                    com.talachibank.signature.core.SDithKeyPair sdithKeyPair = sdithTokenService
-                            .generateKeyPair(com.talachibank.signature.core.SDitHParameters.LEVEL_L1);
-                    UserKeyPair keyPairEntity = UserKeyPair.builder()
-                            .user(user)
-                            .publicKey(sdithKeyPair.getPublicKey().getPublicKey())
-                            .syndrome(sdithKeyPair.getPublicKey().getSyndrome())
-                            .privateKeyEncrypted(sdithKeyPair.getPrivateKey().getSecretKey())
-                            .securityLevel(128)
-                            .status(UserKeyPair.KeyStatus.ACTIVE)
-                            .build();
-                    userKeyPairRepository.save(java.util.Objects.requireNonNull(keyPairEntity));
-                    System.out.println("Seeded keys for: " + user.getUsername());
-                } catch (Exception e) {
-                    System.err.println("Failed to seed keys for " + user.getUsername());
+        int workers = keyParallelism > 0 ? keyParallelism : Runtime.getRuntime().availableProcessors();
+        long seeded = 0;
+        long failed = 0;
+        long started = System.currentTimeMillis();
+
+        try (ExecutorService executor = Executors.newFixedThreadPool(workers,
+                Thread.ofVirtual().name("key-seed-", 0).factory())) {
+            long afterId = 0;
+            List<Long> page;
+            while (!(page = userRepository.findIdsWithoutKeys(afterId, PageRequest.of(0, keyBatchSize))).isEmpty()) {
+                afterId = page.get(page.size() - 1);
+
+                List<Future<UserKeyPair>> futures = new ArrayList<>(page.size());
+                for (Long ignored : page) {
+                    futures.add(executor.submit(this::nextKey));
+                }
+
+                List<Object[]> rows = new ArrayList<>(page.size());
+                LocalDateTime now = LocalDateTime.now();
+                for (int i = 0; i < page.size(); i++) {
+                    try {
+                        UserKeyPair key = futures.get(i).get();
+                        rows.add(new Object[] { page.get(i), key.getPublicKey(), key.getSyndrome(),
+                                key.getPrivateKeyEncrypted(), key.getSecurityLevel(),
+                                UserKeyPair.KeyStatus.ACTIVE.name(), now });
+                    } catch (ExecutionException e) {
+                        failed++;
+                        logger.warn("Failed to seed keys for user {}: {}", page.get(i), e.getCause().getMessage());
+                    }
+                }
+
+                if (!rows.isEmpty()) {
+                    jdbcTemplate.batchUpdate(INSERT_KEY, rows);
+                    seeded += rows.size();
                 }
             }
-        });
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+
+        if (seeded > 0 || failed > 0) {
+            logger.info("Seeded keys for {} users in {} ms ({} failed)", seeded,
+                    System.currentTimeMillis() - started, failed);
+        }
+    }
+
+    private UserKeyPair nextKey() throws InterruptedException {
+        // Pre-generated key when the pool has one, fresh keygen otherwise
+        Optional<UserKeyPair> pooled = keyPoolService.take(SDitHParameters.LEVEL_L1);
+        if (pooled.isPresent()) {
+            return pooled.get();
+        }
+        for (;;) {
+            try {
+                return generateKey();
+            } catch (CryptoSaturatedException e) {
+                // The seeder shares the crypto queue with live traffic, back off like a client would
+                Thread.sleep(e.getRetryAfterSeconds() * 1000L);
+            }
+        }
+    }
+
+    private UserKeyPair generateKey() {
+        SDithKeyPair sdithKeyPair = sdithTokenService.generateKeyPair(SDitHParameters.LEVEL_L1);
+        return UserKeyPair.builder()
+                .publicKey(sdithKeyPair.getPublicKey().getPublicKey())
+                .syndrome(sdithKeyPair.getPublicKey().getSyndrome())
+                .privateKeyEncrypted(sdithKeyPair.getPrivateKey().getSecretKey())
+                .securityLevel(128)
+                .status(UserKeyPair.KeyStatus.ACTIVE)
+                .build();
     }
 }
@@ -0,0 +1,465 @@
+package com.talachibank.api.seeder;
+
+import com.talachibank.api.exception.CryptoSaturatedException;
+import com.talachibank.api.model.ERole;
+import com.talachibank.api.model.LedgerEntry;
+import com.talachibank.api.model.Transaction;
+import com.talachibank.api.model.TransactionStatus;
+import com.talachibank.api.model.UserKeyPair;
+import com.talachibank.api.repository.RoleRepository;
+import com.talachibank.api.service.KeyPoolService;
+import com.talachibank.api.service.LedgerService;
+import com.talachibank.api.service.SDitHTokenService;
+import com.talachibank.api.service.TransactionService;
+import com.talachibank.signature.core.SDitHParameters;
+import com.talachibank.signature.core.SDithKeyPair;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.CommandLineRunner;
+import org.springframework.context.annotation.Profile;
+import org.springframework.core.annotation.Order;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.stereotype.Component;
+
+import javax.sql.DataSource;
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.UUID;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Supplier;
+
+/**
+ * Fills the database with a production-like dataset for performance work
+ * ({@code --spring.profiles.active=loadgen}).
+ *
+ * <p>
+ * Creates {@code talachibank.loadgen.users} accounts, each with a real SDitH
+ * key pair, then {@code talachibank.loadgen.transactions} transfers between
+ * them. Senders and recipients are drawn from a Zipf distribution, so a few
+ * accounts carry most of the traffic, and every transfer is signed with its
+ * sender's key exactly as {@link TransactionService#signTransaction} would
+ * sign it. Each transfer also gets its create/sign/execute audit rows.
+ *
+ * <p>
+ * Work is split into chunks processed in parallel and each chunk is written
+ * with {@link BulkWriter} (COPY on PostgreSQL, JDBC batches elsewhere). The
+ * ledger is written like live traffic would: an opening balance per account
+ * dated before the history, and a debit/credit pair per executed transfer at
+ * its execution time. Transfers are settled in execution order, and one the
+ * sender cannot cover at that point is FAILED, so no balance goes negative.
+ * {@code users.balance} is then set to the ledger total, so point-in-time and
+ * current balances agree. Every generated user can log in with
+ * {@code talachibank.loadgen.password}.
+ */
+@Component
+@Profile("loadgen")
+@Order(2)
+public class LoadDataGenerator implements CommandLineRunner {
+    private static final Logger logger = LoggerFactory.getLogger(LoadDataGenerator.class);
+
+    private static final String[] USER_COLUMNS = { "username", "email", "password", "created_at", "updated_at",
+            "is_active", "account_number", "balance" };
+    private static final String[] ROLE_COLUMNS = { "user_id", "role_id" };
+    private static final String[] KEY_COLUMNS = { "user_id", "public_key", "syndrome", "private_key_encrypted",
+            "security_level", "status", "created_at", "usage_count" };
+    private static final String[] TRANSACTION_COLUMNS = { "transaction_id", "transaction_type",
+            "from_account_number", "to_account_number", "beneficiary_name", "amount", "currency", "description",
+            "initiated_by_id", "initiated_at", "status", "risk_score", "signature_level", "transaction_hash",
+            "sdith_signature", "signature_verified", "executed_at", "credit_posted" };
+    private static final String[] LEDGER_COLUMNS = { "transaction_id", "account_number", "direction", "amount",
+            "reference", "created_at" };
+    private static final String[] AUDIT_COLUMNS = { "user_id", "action", "transaction_id", "timestamp",
+            "ip_address", "details" };
+
+    @Autowired
+    private DataSource dataSource;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private RoleRepository roleRepository;
+
+    @Autowired
+    private PasswordEncoder encoder;
+
+    @Autowired
+    private KeyPoolService keyPoolService;
+
+    @Autowired
+    private SDitHTokenService sdithTokenService;
+
+    @Autowired
+    private TransactionService transactionService;
+
+    @Value("${talachibank.loadgen.users:10000}")
+    private int userCount;
+
+    @Value("${talachibank.loadgen.transactions:100000}")
+    private int transactionCount;
+
+    @Value("${talachibank.loadgen.zipf-exponent:1.1}")
+    private double zipfExponent;
+
+    @Value("${talachibank.loadgen.batch-size:5000}")
+    private int batchSize;
+
+    // 0 = one worker per core
+    @Value("${talachibank.loadgen.workers:0}")
+    private int workers;
+
+    @Value("${talachibank.loadgen.history-days:365}")
+    private int historyDays;
+
+    @Value("${talachibank.loadgen.opening-balance:10000.00}")
+    private BigDecimal openingBalance;
+
+    @Value("${talachibank.loadgen.password:LoadTest123!}")
+    private String password;
+
+    @Value("${talachibank.loadgen.seed:42}")
+    private long seed;
+
+    @Override
+    public void run(String... args) throws Exception {
+        if (userCount < 2) {
+            throw new IllegalArgumentException("talachibank.loadgen.users must be at least 2");
+        }
+        int threads = workers > 0 ? workers : Runtime.getRuntime().availableProcessors();
+        BulkWriter writer = new BulkWriter(dataSource);
+        // Unique per run so the generator can be re-run against the same database
+        String tag = Long.toString(System.currentTimeMillis(), 36);
+
+        logger.info("Generating {} users and {} transactions with {} workers ({})", userCount, transactionCount,
+                threads, writer.isCopySupported() ? "COPY" : "JDBC batch");
+        long started = System.currentTimeMillis();
+        LocalDateTime now = LocalDateTime.now();
+        // Accounts open before the oldest transfer, transfers finish before now
+        LocalDateTime openedAt = now.minusDays(Math.max(1, historyDays) + 1L);
+
+        try (ExecutorService executor = Executors.newFixedThreadPool(threads,
+                Thread.ofVirtual().name("loadgen-", 0).factory())) {
+            Account[] accounts = generateUsers(tag, openedAt, writer, executor, threads);
+            logger.info("Users and keys ready after {} ms", System.currentTimeMillis() - started);
+            long[] balanceCents = generateTransactions(accounts, now, writer, executor, threads);
+            updateBalances(accounts, balanceCents);
+        }
+
+        logger.info("Load data generated in {} ms", System.currentTimeMillis() - started);
+    }
+
+    private Account[] generateUsers(String tag, LocalDateTime openedAt, BulkWriter writer, ExecutorService executor,
+            int threads) throws InterruptedException {
+        String passwordHash = encoder.encode(password);
+        Integer roleId = roleRepository.findByName(ERole.ROLE_USER)
+                .orElseThrow(() -> new RuntimeException("Error: Role is not found."))
+                .getId();
+        String prefix = "LDG-" + tag + "-";
+
+        runChunks(executor, userCount, threads, (from, to) -> {
+            List<Object[]> rows = new ArrayList<>(to - from);
+            List<Object[]> ledger = new ArrayList<>((to - from) * 2);
+            for (int i = from; i < to; i++) {
+                String username = "ld" + tag + "_" + i; // fits the 20-char username limit
+                String accountNumber = prefix + String.format("%07d", i);
+                rows.add(new Object[] { username, username + "@load.talachibank.test", passwordHash, openedAt,
+                        openedAt, true, accountNumber, openingBalance });
+                addPosting(ledger, null, LedgerService.EXTERNAL_ACCOUNT, accountNumber, openingBalance, "OPENING",
+                        openedAt);
+            }
+            writer.write("users", USER_COLUMNS, rows);
+            writer.write("ledger_entries", LEDGER_COLUMNS, ledger);
+        });
+
+        Account[] accounts = new Account[userCount];
+        jdbcTemplate.query("select id, account_number from users where account_number like ?", rs -> {
+            String accountNumber = rs.getString(2);
+            int index = Integer.parseInt(accountNumber.substring(prefix.length()));
+            accounts[index] = new Account(index, rs.getLong(1), accountNumber);
+        }, prefix + "%");
+
+        runChunks(executor, userCount, threads, (from, to) -> {
+            LocalDateTime now = LocalDateTime.now();
+            List<Object[]> roles = new ArrayList<>(to - from);
+            List<Object[]> keys = new ArrayList<>(to - from);
+            for (int i = from; i < to; i++) {
+                Account account = accounts[i];
+                UserKeyPair key = nextKey();
+                account.privateKey = key.getPrivateKeyEncrypted();
+                account.securityLevel = key.getSecurityLevel();
+                roles.add(new Object[] { account.id, roleId });
+                keys.add(new Object[] { account.id, key.getPublicKey(), key.getSyndrome(),
+                        key.getPrivateKeyEncrypted(), key.getSecurityLevel(), UserKeyPair.KeyStatus.ACTIVE.name(),
+                        now, 0 });
+            }
+            writer.write("user_roles", ROLE_COLUMNS, roles);
+            writer.write("user_key_pairs", KEY_COLUMNS, keys);
+        });
+
+        Map<Long, Account> byId = new HashMap<>(userCount * 2);
+        for (Account account : accounts) {
+            byId.put(account.id, account);
+        }
+        jdbcTemplate.query("select k.id, k.user_id from user_key_pairs k join users u on u.id = k.user_id "
+                + "where u.account_number like ?", rs -> {
+                    byId.get(rs.getLong(2)).keyId = rs.getLong(1);
+                }, prefix + "%");
+        return accounts;
+    }
+
+    /**
+     * Draws every transfer up front and settles them in execution order
+     * against running balances, as live execution would: a transfer its sender
+     * cannot cover at that moment is FAILED and moves no money. The expensive
+     * part (hashing, signing, writing) then runs in parallel chunks.
+     *
+     * @return the balance of each account (by index) in cents after the history
+     */
+    private long[] generateTransactions(Account[] accounts, LocalDateTime now, BulkWriter writer,
+            ExecutorService executor, int threads) throws InterruptedException {
+        Random random = new Random(seed);
+        ZipfSampler sampler = new ZipfSampler(accounts.length, zipfExponent);
+        // Hot ranks go to random accounts rather than the first ones created
+        Account[] byRank = accounts.clone();
+        for (int i = byRank.length - 1; i > 0; i--) {
+            int j = random.nextInt(i + 1);
+            Account swap = byRank[i];
+            byRank[i] = byRank[j];
+            byRank[j] = swap;
+        }
+
+        Transfer[] transfers = new Transfer[transactionCount];
+        long historySeconds = Math.max(1, historyDays) * 86_400L;
+        for (int i = 0; i < transfers.length; i++) {
+            Account sender = byRank[sampler.sample(random)];
+            Account recipient;
+            do {
+                recipient = byRank[sampler.sample(random)];
+            } while (recipient == sender);
+            // Skewed amounts: mostly small payments, occasionally large ones
+            double raw = Math.exp(3.5 + 1.2 * random.nextGaussian());
+            long cents = Math.max(1, Math.round(Math.min(50_000, raw) * 100));
+            // Initiated at least a minute back, so that signing and execution still lie in the past
+            int signDelay = 1 + random.nextInt(30);
+            int executeDelay = 1 + random.nextInt(10);
+            LocalDateTime executedAt = now.minusSeconds(60 + signDelay + executeDelay
+                    + random.nextLong(historySeconds));
+            boolean executed = random.nextInt(100) < 95;
+            transfers[i] = new Transfer(sender, recipient, cents, executedAt, signDelay, executeDelay,
+                    executed ? TransactionStatus.EXECUTED : TransactionStatus.SIGNED, random.nextInt(30));
+        }
+
+        Arrays.sort(transfers, Comparator.comparing(t -> t.executedAt));
+        long[] balanceCents = new long[accounts.length];
+        Arrays.fill(balanceCents, openingBalance.movePointRight(2).longValueExact());
+        int failed = 0;
+        for (Transfer transfer : transfers) {
+            if (transfer.status != TransactionStatus.EXECUTED) {
+                continue;
+            }
+            if (balanceCents[transfer.sender.index] < transfer.cents) {
+                transfer.status = TransactionStatus.FAILED;
+                failed++;
+                continue;
+            }
+            balanceCents[transfer.sender.index] -= transfer.cents;
+            balanceCents[transfer.recipient.index] += transfer.cents;
+        }
+        logger.info("{} of {} transfers fail for insufficient funds", failed, transfers.length);
+
+        AtomicLong written = new AtomicLong();
+        runChunks(executor, transfers.length, threads, (from, to) -> {
+            List<Object[]> transactions = new ArrayList<>(to - from);
+            List<Object[]> ledger = new ArrayList<>((to - from) * 2);
+            List<Object[]> audits = new ArrayList<>((to - from) * 3);
+
+            for (int i = from; i < to; i++) {
+                Transfer transfer = transfers[i];
+                Account sender = transfer.sender;
+                Account recipient = transfer.recipient;
+                BigDecimal amount = BigDecimal.valueOf(transfer.cents, 2);
+                boolean executed = transfer.status == TransactionStatus.EXECUTED;
+                LocalDateTime signedAt = transfer.executedAt.minusSeconds(transfer.executeDelay);
+                LocalDateTime initiatedAt = signedAt.minusSeconds(transfer.signDelay);
+
+                Transaction tx = Transaction.builder()
+                        .transactionId(UUID.randomUUID())
+                        .fromAccountNumber(sender.accountNumber)
+                        .toAccountNumber(recipient.accountNumber)
+                        .amount(amount)
+                        .build();
+                String hash = transactionService.hashTransaction(tx);
+                byte[] signature = sign(hash, sender.privateKey);
+                LocalDateTime executedAt = executed ? transfer.executedAt : null;
+                String id = tx.getTransactionId().toString();
+
+                transactions.add(new Object[] { tx.getTransactionId(), "INTERNAL_TRANSFER", sender.accountNumber,
+                        recipient.accountNumber, null, amount, "EUR", "Load test transfer " + i, sender.id,
+                        initiatedAt, transfer.status.name(), transfer.riskScore, sender.securityLevel, hash,
+                        signature, true, executedAt, true });
+
+                audits.add(new Object[] { sender.id, "CREATE_TRANSACTION", id, initiatedAt, "0.0.0.0",
+                        "Created transaction to " + recipient.accountNumber + " amount " + amount });
+                audits.add(new Object[] { sender.id, "SIGN_TRANSACTION", id, signedAt, "0.0.0.0",
+                        "Signed with KeyID " + sender.keyId + " (SDitH Level " + sender.securityLevel + ")" });
+                if (executed) {
+                    addPosting(ledger, tx.getTransactionId(), sender.accountNumber, recipient.accountNumber, amount,
+                            "TRANSFER", executedAt);
+                    audits.add(new Object[] { sender.id, "EXECUTE_TRANSACTION", id, executedAt, "0.0.0.0",
+                            "Funds transferred from " + sender.accountNumber + " to " + recipient.accountNumber
+                                    + " amount " + amount });
+                }
+            }
+
+            writer.write("transactions", TRANSACTION_COLUMNS, transactions);
+            writer.write("ledger_entries", LEDGER_COLUMNS, ledger);
+            writer.write("audit_logs", AUDIT_COLUMNS, audits);
+            logger.info("Transactions written: {}/{}", written.addAndGet(transactions.size()), transactionCount);
+        });
+        return balanceCents;
+    }
+
+    // users.balance is the materialized ledger total: opening balance plus the net of executed transfers
+    private void updateBalances(Account[] accounts, long[] balanceCents) {
+        long openingCents = openingBalance.movePointRight(2).longValueExact();
+        int size = Math.max(1, batchSize);
+        List<Object[]> rows = new ArrayList<>(Math.min(accounts.length, size));
+        for (Account account : accounts) {
+            long balance = balanceCents[account.index];
+            if (balance != openingCents) {
+                rows.add(new Object[] { BigDecimal.valueOf(balance, 2), account.id });
+            }
+            if (rows.size() == size) {
+                jdbcTemplate.batchUpdate("update users set balance = ? where id = ?", rows);
+                rows.clear();
+            }
+        }
+        if (!rows.isEmpty()) {
+            jdbcTemplate.batchUpdate("update users set balance = ? where id = ?", rows);
+        }
+    }
+
+    // Double-entry posting, as LedgerService writes it
+    private static void addPosting(List<Object[]> ledger, UUID transactionId, String debitAccount,
+            String creditAccount, BigDecimal amount, String reference, LocalDateTime at) {
+        ledger.add(new Object[] { transactionId, debitAccount, LedgerEntry.Direction.DEBIT.name(), amount, reference,
+                at });
+        ledger.add(new Object[] { transactionId, creditAccount, LedgerEntry.Direction.CREDIT.name(), amount,
+                reference, at });
+    }
+
+    /**
+     * Splits {@code 0..total} into contiguous chunks of at most
+     * {@code batch-size} (and at least one per worker), runs them on
+     * {@code executor} and waits for all of them.
+     */
+    private void runChunks(ExecutorService executor, int total, int threads, Chunk chunk)
+            throws InterruptedException {
+        int size = Math.max(1, Math.min(batchSize, (total + threads - 1) / threads));
+        List<Future<?>> futures = new ArrayList<>();
+        for (int from = 0; from < total; from += size) {
+            int start = from;
+            int end = Math.min(total, from + size);
+            futures.add(executor.submit(() -> chunk.run(start, end)));
+        }
+        for (Future<?> future : futures) {
+            try {
+                future.get();
+            } catch (ExecutionException e) {
+                futures.forEach(f -> f.cancel(true));
+                throw new RuntimeException("Load data generation failed", e.getCause());
+            }
+        }
+    }
+
+    private UserKeyPair nextKey() {
+        return keyPoolService.take(SDitHParameters.LEVEL_L1).orElseGet(() -> {
+            SDithKeyPair keyPair = withBackoff(() -> sdithTokenService.generateKeyPair(SDitHParameters.LEVEL_L1));
+            return UserKeyPair.builder()
+                    .publicKey(keyPair.getPublicKey().getPublicKey())
+                    .syndrome(keyPair.getPublicKey().getSyndrome())
+                    .privateKeyEncrypted(keyPair.getPrivateKey().getSecretKey())
+                    .securityLevel(128)
+                    .build();
+        });
+    }
+
+    private byte[] sign(String hash, byte[] privateKey) {
+        return withBackoff(() -> sdithTokenService.signTransaction(hash, privateKey));
+    }
+
+    // The generator shares the crypto queue with live traffic, so it waits out saturation like a client would
+    private static <T> T withBackoff(Supplier<T> operation) {
+        for (;;) {
+            try {
+                return operation.get();
+            } catch (CryptoSaturatedException e) {
+                try {
+                    Thread.sleep(e.getRetryAfterSeconds() * 1000L);
+                } catch (InterruptedException interrupted) {
+                    Thread.currentThread().interrupt();
+                    throw e;
+                }
+            }
+        }
+    }
+
+    @FunctionalInterface
+    private interface Chunk {
+        void run(int from, int to);
+    }
+
+    private static class Transfer {
+        private final Account sender;
+        private final Account recipient;
+        private final long cents;
+        private final LocalDateTime executedAt;
+        private final int signDelay;
+        private final int executeDelay;
+        private final int riskScore;
+        // EXECUTED or SIGNED as drawn; EXECUTED becomes FAILED if the sender cannot cover it
+        private TransactionStatus status;
+
+        Transfer(Account sender, Account recipient, long cents, LocalDateTime executedAt, int signDelay,
+                int executeDelay, TransactionStatus status, int riskScore) {
+            this.sender = sender;
+            this.recipient = recipient;
+            this.cents = cents;
+            this.executedAt = executedAt;
+            this.signDelay = signDelay;
+            this.executeDelay = executeDelay;
+            this.status = status;
+            this.riskScore = riskScore;
+        }
+    }
+
+    private static class Account {
+        private final int index;
+        private final long id;
+        private final String accountNumber;
+        private long keyId;
+        private byte[] privateKey;
+        private int securityLevel;
+
+        Account(int index, long id, String accountNumber) {
+            this.index = index;
+            this.id = id;
+            this.accountNumber = accountNumber;
+        }
+    }
+}
@@ -0,0 +1,32 @@
+package com.talachibank.api.seeder;
+
+import java.util.Arrays;
+import java.util.random.RandomGenerator;
+
+/**
+ * Draws ranks {@code 0..n-1} with probability proportional to
+ * {@code 1 / (rank + 1)^exponent}, so a handful of ranks get most of the
+ * draws and a long tail gets a few each, like real account activity.
+ */
+class ZipfSampler {
+
+    private final double[] cumulative;
+
+    ZipfSampler(int n, double exponent) {
+        if (n < 1) {
+            throw new IllegalArgumentException("Zipf sampler needs at least one rank");
+        }
+        cumulative = new double[n];
+        double sum = 0;
+        for (int rank = 0; rank < n; rank++) {
+            sum += 1.0 / Math.pow(rank + 1, exponent);
+            cumulative[rank] = sum;
+        }
+    }
+
+    int sample(RandomGenerator random) {
+        double u = random.nextDouble() * cumulative[cumulative.length - 1];
+        int i = Arrays.binarySearch(cumulative, u);
+        return Math.min(i >= 0 ? i : -i - 1, cumulative.length - 1);
+    }
+}
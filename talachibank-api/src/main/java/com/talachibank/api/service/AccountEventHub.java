@@ -0,0 +1,195 @@
+package com.talachibank.api.service;
+
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.MediaType;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.io.IOException;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Pushes account events (balance changes, transaction status transitions) to
+ * clients subscribed over Server-Sent Events.
+ *
+ * <p>
+ * An idle subscription is just an {@link SseEmitter} in a map: the request is
+ * in async mode and holds no thread, so tens of thousands of open dashboards
+ * cost little more than their sockets. Publishing never blocks the caller:
+ * each subscription has its own bounded queue, drained by a virtual thread
+ * started only while there is something to send, so a slow client only ever
+ * holds up itself. A client whose queue fills up has fallen behind and is
+ * disconnected (it reconnects and reloads its state). A periodic heartbeat
+ * comment, queued the same way, keeps proxies from closing idle streams and
+ * detects dead clients.
+ */
+@Service
+public class AccountEventHub {
+    private static final Logger logger = LoggerFactory.getLogger(AccountEventHub.class);
+
+    private final Map<String, Set<Subscriber>> subscribers = new ConcurrentHashMap<>();
+    private final AtomicInteger connections = new AtomicInteger();
+    private final int queueCapacity;
+
+    @Value("${talachibank.events.timeout-ms:1800000}")
+    private long timeoutMs;
+
+    @Value("${talachibank.events.max-per-account:5}")
+    private int maxPerAccount;
+
+    public AccountEventHub(@Value("${talachibank.events.queue-capacity:64}") int queueCapacity) {
+        this.queueCapacity = Math.max(1, queueCapacity);
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        subscribers.values().forEach(set -> set.forEach(s -> s.emitter.complete()));
+    }
+
+    public SseEmitter subscribe(String accountNumber) {
+        return subscribe(accountNumber, new SseEmitter(timeoutMs));
+    }
+
+    SseEmitter subscribe(String accountNumber, SseEmitter emitter) {
+        Subscriber subscriber = new Subscriber(accountNumber, emitter);
+        boolean[] added = { false };
+        subscribers.compute(accountNumber, (k, set) -> {
+            Set<Subscriber> current = set != null ? set : ConcurrentHashMap.newKeySet();
+            if (current.size() < maxPerAccount) {
+                added[0] = current.add(subscriber);
+            }
+            return current;
+        });
+        if (!added[0]) {
+            throw new RuntimeException("Too many open event streams for this account");
+        }
+        connections.incrementAndGet();
+
+        Runnable remove = () -> unsubscribe(subscriber);
+        emitter.onCompletion(remove);
+        emitter.onTimeout(remove);
+        emitter.onError(e -> remove.run());
+
+        subscriber.enqueue(SseEmitter.event().comment("connected"));
+        return emitter;
+    }
+
+    /**
+     * Sends {@code payload} as a JSON event named {@code eventName} to every
+     * stream of {@code accountNumber}. Returns immediately.
+     */
+    public void publish(String accountNumber, String eventName, Object payload) {
+        Set<Subscriber> set = subscribers.get(accountNumber);
+        if (set == null) {
+            return;
+        }
+        for (Subscriber subscriber : set) {
+            subscriber.enqueue(SseEmitter.event().name(eventName).data(payload, MediaType.APPLICATION_JSON));
+        }
+    }
+
+    /**
+     * Publishes to each of {@code accountNumbers} once the current transaction
+     * commits (immediately if there is none); nothing is sent on rollback.
+     */
+    public void publishAfterCommit(String eventName, Object payload, String... accountNumbers) {
+        Runnable send = () -> {
+            for (String accountNumber : accountNumbers) {
+                if (accountNumber != null) {
+                    publish(accountNumber, eventName, payload);
+                }
+            }
+        };
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            send.run();
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                send.run();
+            }
+        });
+    }
+
+    @Scheduled(fixedDelayString = "${talachibank.events.heartbeat-ms:25000}")
+    public void heartbeat() {
+        subscribers.values().forEach(set -> set.forEach(s -> s.enqueue(SseEmitter.event().comment("ping"))));
+    }
+
+    public int connectionCount() {
+        return connections.get();
+    }
+
+    private void unsubscribe(Subscriber subscriber) {
+        subscribers.computeIfPresent(subscriber.accountNumber, (k, set) -> {
+            if (set.remove(subscriber)) {
+                connections.decrementAndGet();
+            }
+            return set.isEmpty() ? null : set;
+        });
+    }
+
+    // One stream: its pending events and the flag of the virtual thread writing them
+    private class Subscriber {
+        final String accountNumber;
+        final SseEmitter emitter;
+        final BlockingQueue<SseEmitter.SseEventBuilder> queue = new ArrayBlockingQueue<>(queueCapacity);
+        final AtomicBoolean draining = new AtomicBoolean();
+        volatile boolean closed;
+
+        Subscriber(String accountNumber, SseEmitter emitter) {
+            this.accountNumber = accountNumber;
+            this.emitter = emitter;
+        }
+
+        void enqueue(SseEmitter.SseEventBuilder event) {
+            if (closed) {
+                return;
+            }
+            if (!queue.offer(event)) {
+                logger.debug("Event stream of {} fell behind, closing it", accountNumber);
+                close();
+                // The emitter is locked while a send is stuck: complete it off the publisher's thread
+                Thread.ofVirtual().name("sse-close-" + accountNumber).start(emitter::complete);
+                return;
+            }
+            if (draining.compareAndSet(false, true)) {
+                Thread.ofVirtual().name("sse-" + accountNumber).start(this::drain);
+            }
+        }
+
+        private void drain() {
+            do {
+                SseEmitter.SseEventBuilder event;
+                while (!closed && (event = queue.poll()) != null) {
+                    try {
+                        emitter.send(event);
+                    } catch (IOException | IllegalStateException e) {
+                        close();
+                    }
+                }
+                draining.set(false);
+                // An event queued after the last poll but before the reset must not be stranded
+            } while (!closed && !queue.isEmpty() && draining.compareAndSet(false, true));
+        }
+
+        private void close() {
+            closed = true;
+            queue.clear();
+            unsubscribe(this);
+        }
+    }
+}
@@ -0,0 +1,238 @@
+package com.talachibank.api.service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.talachibank.api.model.AuditOutboxEntry;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+import java.sql.Timestamp;
+import java.sql.Types;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Writes audit events logged outside a database transaction into
+ * {@code audit_outbox} in the background.
+ *
+ * <p>
+ * Events inside a transaction are saved to the outbox in that transaction
+ * ({@link AuditService}); the others would otherwise cost the caller a
+ * round trip of their own. They are pushed onto a bounded lock-free queue
+ * instead, and a single writer thread inserts them with one JDBC batch every
+ * {@code flush-interval-ms}, or as soon as {@code flush-size} events are
+ * waiting. {@link AuditOutboxRelay} then moves them on like any other event.
+ *
+ * <p>
+ * When the queue is full the caller inserts its own event synchronously and
+ * {@code talachibank.audit.backpressure} is incremented. A batch the database
+ * rejects is appended to a local spool file and forced to disk, then replayed
+ * (in one transaction) before the next flush. Queued events that have not
+ * been flushed yet are lost on a crash; a crash between a replay and the spool
+ * deletion writes that spool twice.
+ */
+@Component
+public class AsyncAuditWriter {
+    private static final Logger logger = LoggerFactory.getLogger(AsyncAuditWriter.class);
+
+    private static final String INSERT_SQL = "insert into audit_outbox "
+            + "(user_id, action, transaction_id, ip_address, details, created_at) values (?, ?, ?, ?, ?, ?)";
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @Value("${talachibank.audit.queue-capacity:10000}")
+    private int queueCapacity;
+
+    @Value("${talachibank.audit.flush-size:500}")
+    private int flushSize;
+
+    @Value("${talachibank.audit.flush-interval-ms:200}")
+    private long flushIntervalMs;
+
+    @Value("${talachibank.audit.spool-file:logs/audit-spool.jsonl}")
+    private String spoolFile;
+
+    private final ConcurrentLinkedQueue<AuditOutboxEntry> queue = new ConcurrentLinkedQueue<>();
+    private final AtomicInteger depth = new AtomicInteger();
+    private final AtomicBoolean flushRequested = new AtomicBoolean();
+    private final ObjectMapper mapper = new ObjectMapper().findAndRegisterModules()
+            .disable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS);
+
+    private ScheduledExecutorService writer;
+    private Path spoolPath;
+
+    private Counter enqueued;
+    private Counter written;
+    private Counter backpressure;
+    private Counter failures;
+    private Timer flushTimer;
+
+    @PostConstruct
+    public void init() throws IOException {
+        enqueued = meterRegistry.counter("talachibank.audit.events.enqueued");
+        written = meterRegistry.counter("talachibank.audit.events.written");
+        backpressure = meterRegistry.counter("talachibank.audit.backpressure");
+        failures = meterRegistry.counter("talachibank.audit.flush.failures");
+        flushTimer = meterRegistry.timer("talachibank.audit.flush");
+        meterRegistry.gauge("talachibank.audit.queue.depth", depth);
+
+        spoolPath = Paths.get(spoolFile);
+        if (spoolPath.getParent() != null) {
+            Files.createDirectories(spoolPath.getParent());
+        }
+
+        writer = Executors.newSingleThreadScheduledExecutor(r -> {
+            Thread t = new Thread(r, "audit-writer");
+            t.setDaemon(true);
+            return t;
+        });
+        writer.scheduleWithFixedDelay(this::flush, flushIntervalMs, flushIntervalMs, TimeUnit.MILLISECONDS);
+    }
+
+    @PreDestroy
+    public void shutdown() throws InterruptedException {
+        writer.shutdown();
+        writer.awaitTermination(5, TimeUnit.SECONDS);
+        flush();
+    }
+
+    public void submit(AuditOutboxEntry entry) {
+        if (depth.incrementAndGet() > queueCapacity) {
+            depth.decrementAndGet();
+            backpressure.increment();
+            insertBatch(List.of(entry));
+            return;
+        }
+        queue.offer(entry);
+        enqueued.increment();
+
+        if (depth.get() >= flushSize && flushRequested.compareAndSet(false, true)) {
+            writer.execute(this::flush);
+        }
+    }
+
+    public int getQueueDepth() {
+        return depth.get();
+    }
+
+    // Runs on the writer thread, and once more on shutdown
+    synchronized void flush() {
+        flushRequested.set(false);
+        try {
+            replaySpool();
+            List<AuditOutboxEntry> batch = new ArrayList<>();
+            AuditOutboxEntry next;
+            while (true) {
+                while (batch.size() < flushSize && (next = queue.poll()) != null) {
+                    depth.decrementAndGet();
+                    batch.add(next);
+                }
+                if (batch.isEmpty()) {
+                    return;
+                }
+                List<AuditOutboxEntry> toWrite = batch;
+                try {
+                    flushTimer.record(() -> insertBatch(toWrite));
+                    written.increment(toWrite.size());
+                } catch (RuntimeException e) {
+                    failures.increment();
+                    logger.error("Audit batch of {} events failed, spooling it: {}", toWrite.size(), e.getMessage());
+                    spool(toWrite);
+                }
+                batch = new ArrayList<>();
+            }
+        } catch (Exception e) {
+            logger.error("Audit writer flush failed", e);
+        }
+    }
+
+    private void insertBatch(List<AuditOutboxEntry> batch) {
+        jdbcTemplate.batchUpdate(INSERT_SQL, batch, batch.size(), (ps, entry) -> {
+            if (entry.getUserId() != null) {
+                ps.setLong(1, entry.getUserId());
+            } else {
+                ps.setNull(1, Types.BIGINT);
+            }
+            ps.setString(2, entry.getAction());
+            ps.setString(3, entry.getTransactionId());
+            ps.setString(4, entry.getIpAddress());
+            ps.setString(5, entry.getDetails());
+            ps.setTimestamp(6, Timestamp.valueOf(entry.getCreatedAt()));
+        });
+    }
+
+    private void spool(List<AuditOutboxEntry> batch) {
+        try (FileChannel channel = FileChannel.open(spoolPath, StandardOpenOption.CREATE, StandardOpenOption.WRITE,
+                StandardOpenOption.APPEND)) {
+            StringBuilder lines = new StringBuilder();
+            for (AuditOutboxEntry entry : batch) {
+                lines.append(mapper.writeValueAsString(entry)).append('\n');
+            }
+            ByteBuffer buffer = ByteBuffer.wrap(lines.toString().getBytes(StandardCharsets.UTF_8));
+            while (buffer.hasRemaining()) {
+                channel.write(buffer);
+            }
+            channel.force(true);
+        } catch (IOException e) {
+            // Last resort: the events at least reach the application log
+            logger.error("Audit spool write failed ({}); lost events: {}", e.getMessage(), batch);
+        }
+    }
+
+    private void replaySpool() throws IOException {
+        if (!Files.exists(spoolPath) || Files.size(spoolPath) == 0) {
+            return;
+        }
+        List<AuditOutboxEntry> pending = new ArrayList<>();
+        for (String line : Files.readAllLines(spoolPath, StandardCharsets.UTF_8)) {
+            if (line.isBlank()) {
+                continue;
+            }
+            try {
+                pending.add(mapper.readValue(line, AuditOutboxEntry.class));
+            } catch (IOException e) {
+                // A torn last line from a crash mid-append
+                logger.warn("Skipping unreadable audit spool line: {}", e.getMessage());
+            }
+        }
+        transactionTemplate.executeWithoutResult(status -> {
+            for (int i = 0; i < pending.size(); i += flushSize) {
+                insertBatch(pending.subList(i, Math.min(pending.size(), i + flushSize)));
+            }
+        });
+        Files.delete(spoolPath);
+        written.increment(pending.size());
+        logger.info("Replayed {} spooled audit events", pending.size());
+    }
+}
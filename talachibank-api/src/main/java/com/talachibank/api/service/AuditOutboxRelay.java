@@ -0,0 +1,78 @@
+package com.talachibank.api.service;
+
+import com.talachibank.api.repository.AuditOutboxRepository;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PostConstruct;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.List;
+
+/**
+ * Moves audit events from {@code audit_outbox} into {@code audit_logs}.
+ *
+ * <p>
+ * Each batch is locked, copied with one INSERT ... SELECT and deleted inside a
+ * single database transaction, so every event reaches {@code audit_logs}
+ * exactly once even if the relay crashes mid-way or runs on several instances.
+ */
+@Component
+public class AuditOutboxRelay {
+    private static final Logger logger = LoggerFactory.getLogger(AuditOutboxRelay.class);
+
+    static final String SYSTEM_USER_AGENT = "System/Backend";
+
+    @Autowired
+    private AuditOutboxRepository auditOutboxRepository;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @Value("${talachibank.audit.relay-batch-size:500}")
+    private int batchSize;
+
+    private Counter relayed;
+    private Counter failures;
+    private Timer relayTimer;
+
+    @PostConstruct
+    public void init() {
+        relayed = meterRegistry.counter("talachibank.audit.events.relayed");
+        failures = meterRegistry.counter("talachibank.audit.relay.failures");
+        relayTimer = meterRegistry.timer("talachibank.audit.relay");
+    }
+
+    @Scheduled(fixedDelayString = "${talachibank.audit.relay-interval-ms:200}")
+    public void relay() {
+        try {
+            int moved;
+            do {
+                moved = relayTimer.record(() -> transactionTemplate.execute(status -> relayBatch()));
+                relayed.increment(moved);
+            } while (moved >= batchSize);
+        } catch (Exception e) {
+            failures.increment();
+            logger.error("Audit outbox relay failed: {}", e.getMessage(), e);
+        }
+    }
+
+    private int relayBatch() {
+        List<Long> ids = auditOutboxRepository.lockBatch(batchSize);
+        if (ids.isEmpty()) {
+            return 0;
+        }
+        auditOutboxRepository.copyToAuditLogs(ids, SYSTEM_USER_AGENT);
+        auditOutboxRepository.deleteBatch(ids);
+        return ids.size();
+    }
+}
@@ -0,0 +1,198 @@
+package com.talachibank.api.service;
+
+import jakarta.annotation.PostConstruct;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.DependsOn;
+import org.springframework.jdbc.core.ConnectionCallback;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.sql.Timestamp;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.YearMonth;
+import java.util.List;
+import java.util.Locale;
+
+/**
+ * Keeps {@code audit_logs} range-partitioned by month on PostgreSQL.
+ *
+ * <p>
+ * Hibernate creates {@code audit_logs} as a plain table. On first start this
+ * component swaps it for a partitioned table of the same shape: the existing
+ * table is renamed to {@code audit_logs_legacy} and attached as the partition
+ * covering everything before the first monthly partition, so no rows are copied.
+ * Afterwards it makes sure a partition exists for the current month and the next
+ * {@code talachibank.audit.partitions-ahead} months. Queries bounded by
+ * timestamp only touch the matching months, and old months can be detached
+ * and archived as a unit. Rows dated past the last month (a skewed clock) land
+ * in {@code audit_logs_default} instead of failing the insert, and move to
+ * their month when its partition is created.
+ *
+ * <p>
+ * Other databases (H2 in tests) keep the plain table.
+ */
+@Component
+@DependsOn("entityManagerFactory")
+public class AuditPartitionManager {
+    private static final Logger logger = LoggerFactory.getLogger(AuditPartitionManager.class);
+
+    static final String LEGACY_PARTITION = "audit_logs_legacy";
+    static final String DEFAULT_PARTITION = "audit_logs_default";
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    @Value("${talachibank.audit.partitions-ahead:3}")
+    private int partitionsAhead;
+
+    private boolean postgres;
+
+    @PostConstruct
+    public void init() {
+        String product = jdbcTemplate.execute(
+                (ConnectionCallback<String>) con -> con.getMetaData().getDatabaseProductName());
+        postgres = product != null && product.toLowerCase(Locale.ROOT).contains("postgresql");
+        if (!postgres) {
+            logger.info("Audit log partitioning disabled on {}", product);
+            return;
+        }
+        transactionTemplate.executeWithoutResult(status -> migrateToPartitioned());
+        ensurePartitions();
+    }
+
+    @Scheduled(cron = "${talachibank.audit.partition-maintenance-cron:0 15 0 * * *}")
+    public void ensurePartitions() {
+        if (!postgres) {
+            return;
+        }
+        YearMonth first = YearMonth.now();
+        LocalDate legacyUpper = legacyUpperBound();
+        if (legacyUpper != null) {
+            YearMonth afterLegacy = YearMonth.from(legacyUpper);
+            if (afterLegacy.isAfter(first)) {
+                first = afterLegacy;
+            }
+        }
+        YearMonth last = YearMonth.now().plusMonths(partitionsAhead);
+        for (YearMonth month = first; !month.isAfter(last); month = month.plusMonths(1)) {
+            YearMonth partitionMonth = month;
+            transactionTemplate.executeWithoutResult(status -> createPartition(partitionMonth));
+        }
+        jdbcTemplate.execute("create table if not exists " + DEFAULT_PARTITION + " partition of audit_logs default");
+    }
+
+    private void createPartition(YearMonth month) {
+        String name = partitionName(month);
+        if (tableExists(name)) {
+            return;
+        }
+        String from = "'" + month.atDay(1) + "'";
+        String to = "'" + month.plusMonths(1).atDay(1) + "'";
+        String inRange = " where timestamp >= " + from + " and timestamp < " + to;
+        Long stray = tableExists(DEFAULT_PARTITION)
+                ? jdbcTemplate.queryForObject("select count(*) from " + DEFAULT_PARTITION + inRange, Long.class)
+                : 0L;
+        if (stray == null || stray == 0) {
+            jdbcTemplate.execute("create table if not exists " + name + " partition of audit_logs for values from ("
+                    + from + ") to (" + to + ")");
+            logger.debug("Audit partition {} ready", name);
+            return;
+        }
+
+        // A new range may not overlap rows already in the default partition: move them first
+        jdbcTemplate.execute("lock table " + DEFAULT_PARTITION + " in access exclusive mode");
+        jdbcTemplate.execute("create table " + name + " (like audit_logs including defaults including constraints)");
+        jdbcTemplate.execute("insert into " + name + " select * from " + DEFAULT_PARTITION + inRange);
+        jdbcTemplate.execute("delete from " + DEFAULT_PARTITION + inRange);
+        jdbcTemplate.execute("alter table audit_logs attach partition " + name + " for values from (" + from
+                + ") to (" + to + ")");
+        logger.info("Audit partition {} created; {} rows moved from {}", name, stray, DEFAULT_PARTITION);
+    }
+
+    private boolean tableExists(String name) {
+        return Boolean.TRUE.equals(jdbcTemplate.queryForObject("select to_regclass(?) is not null", Boolean.class,
+                name));
+    }
+
+    static String partitionName(YearMonth month) {
+        return String.format("audit_logs_y%04dm%02d", month.getYear(), month.getMonthValue());
+    }
+
+    private void migrateToPartitioned() {
+        String kind = jdbcTemplate.queryForObject(
+                "select coalesce((select c.relkind::text from pg_class c join pg_namespace n on n.oid = c.relnamespace "
+                        + "where c.relname = 'audit_logs' and n.nspname = current_schema()), '')",
+                String.class);
+        if (!"r".equals(kind)) {
+            return; // already partitioned (or not created yet)
+        }
+
+        jdbcTemplate.execute("lock table audit_logs in access exclusive mode");
+        Timestamp newest = jdbcTemplate.queryForObject("select max(timestamp) from audit_logs", Timestamp.class);
+        Long maxId = jdbcTemplate.queryForObject("select coalesce(max(id), 0) from audit_logs", Long.class);
+
+        // The legacy partition must hold every existing row, so it ends after the newest one
+        YearMonth upper = YearMonth.now().plusMonths(1);
+        if (newest != null) {
+            YearMonth afterNewest = YearMonth.from(newest.toLocalDateTime()).plusMonths(1);
+            if (afterNewest.isAfter(upper)) {
+                upper = afterNewest;
+            }
+        }
+
+        // Free the names the partitioned parent is about to use
+        jdbcTemplate.execute("alter table audit_logs rename to " + LEGACY_PARTITION);
+        jdbcTemplate.execute("alter table " + LEGACY_PARTITION + " drop constraint if exists audit_logs_pkey");
+        jdbcTemplate.execute("alter index if exists idx_audit_user_time rename to idx_audit_legacy_user_time");
+        jdbcTemplate.execute("alter index if exists idx_audit_transaction rename to idx_audit_legacy_transaction");
+        jdbcTemplate.execute("alter table " + LEGACY_PARTITION + " alter column id drop identity if exists");
+
+        // Identity columns are not allowed on partitioned tables before PostgreSQL 17, so ids
+        // come from a plain sequence, and the primary key has to include the partition key.
+        jdbcTemplate.execute("create sequence if not exists audit_logs_seq");
+        jdbcTemplate.queryForObject("select setval('audit_logs_seq', ?, false)", Long.class, maxId + 1);
+        jdbcTemplate.execute("create table audit_logs ("
+                + "id bigint not null default nextval('audit_logs_seq'), "
+                + "user_id bigint, "
+                + "action varchar(255) not null, "
+                + "transaction_id varchar(255), "
+                + "timestamp timestamp(6) not null, "
+                + "ip_address varchar(255), "
+                + "user_agent varchar(255), "
+                + "details text, "
+                + "primary key (id, timestamp)"
+                + ") partition by range (timestamp)");
+        jdbcTemplate.execute("alter sequence audit_logs_seq owned by audit_logs.id");
+        jdbcTemplate.execute("create index idx_audit_user_time on audit_logs (user_id, timestamp)");
+        jdbcTemplate.execute("create index idx_audit_transaction on audit_logs (transaction_id)");
+
+        jdbcTemplate.execute("alter table audit_logs attach partition " + LEGACY_PARTITION
+                + " for values from (MINVALUE) to ('" + upper.atDay(1) + "')");
+        logger.info("audit_logs converted to a partitioned table; existing rows kept in {} (before {})",
+                LEGACY_PARTITION, upper.atDay(1));
+    }
+
+    /** Upper bound of the legacy partition, or null if there is none. */
+    private LocalDate legacyUpperBound() {
+        List<String> bounds = jdbcTemplate.queryForList(
+                "select pg_get_expr(c.relpartbound, c.oid) from pg_inherits i join pg_class c on c.oid = i.inhrelid "
+                        + "where i.inhparent = 'audit_logs'::regclass and c.relname = ?",
+                String.class, LEGACY_PARTITION);
+        if (bounds.isEmpty() || bounds.get(0) == null) {
+            return null;
+        }
+        // FOR VALUES FROM (MINVALUE) TO ('2026-11-01 00:00:00')
+        String bound = bounds.get(0);
+        int start = bound.lastIndexOf("('") + 2;
+        return LocalDateTime.parse(bound.substring(start, start + 19).replace(' ', 'T')).toLocalDate();
+    }
+}
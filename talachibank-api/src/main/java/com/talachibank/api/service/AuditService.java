@@ -1,28 +1,52 @@
 package com.talachibank.api.service;
 
-import com.talachibank.api.model.AuditLog;
-import com.talachibank.api.repository.AuditLogRepository;
+import com.talachibank.api.model.AuditOutboxEntry;
+import com.talachibank.api.model.User;
+import com.talachibank.api.repository.AuditOutboxRepository;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
 
 import java.time.LocalDateTime;
 
+/**
+ * Single entry point for audit events.
+ *
+ * <p>
+ * Events are written as compact rows into {@code audit_outbox}. Inside a
+ * transaction the row joins it: an event commits or rolls back together with
+ * the change it describes. Events logged outside a transaction have nothing to
+ * join and are batched by {@link AsyncAuditWriter} instead.
+ * {@link AuditOutboxRelay} moves the rows into {@code audit_logs} in bulk, off
+ * the request path.
+ */
 @Service
 public class AuditService {
 
     @Autowired
-    private AuditLogRepository auditLogRepository;
+    private AuditOutboxRepository auditOutboxRepository;
+
+    @Autowired
+    private AsyncAuditWriter asyncAuditWriter;
 
     public void logAction(Long userId, String action, String transactionId, String details, String ipAddress) {
-        AuditLog log = new AuditLog();
-        log.setUserId(userId);
-        log.setAction(action);
-        log.setTransactionId(transactionId);
-        log.setDetails(details);
-        log.setIpAddress(ipAddress);
-        log.setTimestamp(LocalDateTime.now());
-        log.setUserAgent("System/Backend");
-
-        auditLogRepository.save(log);
+        AuditOutboxEntry entry = AuditOutboxEntry.builder()
+                .userId(userId)
+                .action(action)
+                .transactionId(transactionId)
+                .details(details)
+                .ipAddress(ipAddress)
+                .createdAt(LocalDateTime.now())
+                .build();
+
+        if (TransactionSynchronizationManager.isActualTransactionActive()) {
+            auditOutboxRepository.save(entry);
+        } else {
+            asyncAuditWriter.submit(entry);
+        }
+    }
+
+    public void log(User user, String action, String transactionId, String details, String ipAddress) {
+        logAction(user != null ? user.getId() : null, action, transactionId, details, ipAddress);
     }
 }
@@ -2,9 +2,7 @@ package com.talachibank.api.service;
 
 import com.talachibank.api.dto.JwtResponse;
 import com.talachibank.api.repository.UserRepository;
-import com.talachibank.api.repository.UserKeyPairRepository;
 import com.talachibank.api.model.User;
-import com.talachibank.api.model.UserKeyPair;
 import com.talachibank.api.security.JwtUtils;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.security.authentication.AuthenticationManager;
@@ -13,6 +11,7 @@ import org.springframework.security.core.Authentication;
 import org.springframework.security.core.context.SecurityContextHolder;
 import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 
 import java.util.Set;
 import java.util.HashSet;
@@ -33,11 +32,6 @@ public class AuthService {
     @Autowired
     JwtUtils jwtUtils;
 
-    @Autowired
-    SDitHTokenService sdithTokenService;
-
-    @Autowired
-    UserKeyPairRepository userKeyPairRepository;
 
     private static final org.slf4j.Logger logger = org.slf4j.LoggerFactory.getLogger(AuthService.class);
 
@@ -62,7 +56,7 @@ public class AuthService {
                     userDetails.getEmail(), roles, null, userDetails.getBalance(), userDetails.getAccountNumber());
         } catch (Exception e) {
             logger.error("Authentication failed for user: {} - Reason: {}", username, e.getMessage());
-            e.printStackTrace(); // Print full stack trace for debugging
+            logger.debug("Authentication failure detail", e);
             throw e;
         }
     }
@@ -70,6 +64,12 @@ public class AuthService {
     @Autowired
     com.talachibank.api.repository.RoleRepository roleRepository;
 
+    @Autowired
+    KeyProvisioningService keyProvisioningService;
+
+    @Autowired
+    LedgerService ledgerService;
+
     /**
      * Register a new user with the specified username, email, password, and roles.
      * 
@@ -81,6 +81,7 @@ public class AuthService {
      * <li>Assigns roles based on the provided role strings</li>
      * <li>Assigns a party index for threshold signing (round-robin: 1-3)</li>
      * <li>Persists the user to the database</li>
+     * <li>Requests an SDitH key pair, generated asynchronously (PENDING until ready)</li>
      * </ul>
      * 
      * <p>
@@ -101,6 +102,7 @@ public class AuthService {
      * @throws RuntimeException if username or email already exists, or if required
      *                          roles are not found in DB
      */
+    @Transactional
     public User registerUser(String username, String email, String password, Set<String> strRoles) {
         logger.info("Attempting registration for user: {}, email: {}", username, email);
         if (userRepository.existsByUsername(username)) {
@@ -157,27 +159,11 @@ public class AuthService {
         user.setRoles(roles);
 
         userRepository.save(user);
+        ledgerService.recordOpeningBalance(accNum, user.getBalance());
 
-        // Generate SDITH Key Pair (Level L1 - 128 bit)
-        try {
-            com.talachibank.signature.core.SDithKeyPair sdithKeyPair = sdithTokenService
-                    .generateKeyPair(com.talachibank.signature.core.SDitHParameters.LEVEL_L1);
-            UserKeyPair keyPairEntity = UserKeyPair.builder()
-                    .user(user)
-                    .publicKey(sdithKeyPair.getPublicKey().getPublicKey())
-                    .syndrome(sdithKeyPair.getPublicKey().getSyndrome())
-                    .privateKeyEncrypted(sdithKeyPair.getPrivateKey().getSecretKey())
-                    .securityLevel(128)
-                    .status(UserKeyPair.KeyStatus.ACTIVE)
-                    .build();
-
-            if (keyPairEntity != null) {
-                userKeyPairRepository.save(keyPairEntity);
-                logger.info("SDitH Key Pair generated and saved for user: {}", username);
-            }
-        } catch (Exception e) {
-            logger.error("Failed to generate SDitH keys for user: {}", username, e);
-        }
+        // SDitH key pair (Level L1 - 128 bit) is generated in the background;
+        // the key is PENDING until then and cannot sign yet
+        keyProvisioningService.requestKey(user, com.talachibank.signature.core.SDitHParameters.LEVEL_L1);
 
         logger.info("User registered successfully: {}", username);
         return user;
@@ -0,0 +1,209 @@
+package com.talachibank.api.service;
+
+import com.talachibank.api.repository.UserRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.math.BigDecimal;
+import java.time.Duration;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeSet;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Read-through cache of account balances for {@code GET /api/user/balance}.
+ *
+ * <p>
+ * Entries live in a local map and, with
+ * {@code talachibank.balance-cache.redis=true}, in Redis as well so that all
+ * instances share them (the local copy then acts as a short-lived near cache).
+ * Code that moves money calls {@link #refreshAfterCommit}; once the database
+ * transaction has committed, the affected balances are re-read and written
+ * through. Every entry also expires after {@code ttl-ms}, which bounds how
+ * long an out-of-order refresh can leave a stale value behind. Refreshed
+ * balances are also pushed to live clients through {@link AccountEventHub}.
+ *
+ * <p>
+ * Without Redis, a refresh only reaches the instance that moved the money:
+ * with several instances, the others keep serving the previous balance (and
+ * its ETag) until their entry expires, so {@code ttl-ms} is the staleness
+ * bound there and is kept short (5 s by default).
+ *
+ * <p>
+ * The local map holds at most {@code local-max-entries} accounts. When it is
+ * full, expired entries are dropped first, then arbitrary ones down to 90%;
+ * an evicted balance is simply read again on the next request.
+ */
+@Service
+public class BalanceCache {
+    private static final Logger logger = LoggerFactory.getLogger(BalanceCache.class);
+
+    private static final String REDIS_PREFIX = "talachibank:balance:";
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private ObjectProvider<StringRedisTemplate> redisTemplate;
+
+    @Autowired
+    private AccountEventHub eventHub;
+
+    @Value("${talachibank.balance-cache.ttl-ms:5000}")
+    private long ttlMs;
+
+    @Value("${talachibank.balance-cache.redis:false}")
+    private boolean redisEnabled;
+
+    @Value("${talachibank.balance-cache.local-ttl-ms:1000}")
+    private long localTtlWithRedisMs;
+
+    @Value("${talachibank.balance-cache.local-max-entries:100000}")
+    private int localMaxEntries;
+
+    private final Map<String, Entry> local = new ConcurrentHashMap<>();
+
+    /**
+     * @return the cached balance, loading it on a miss; null if the account does
+     *         not exist
+     */
+    public BigDecimal get(String accountNumber) {
+        Entry entry = local.get(accountNumber);
+        long now = System.currentTimeMillis();
+        if (entry != null && entry.expiresAt > now) {
+            return entry.balance;
+        }
+
+        BigDecimal balance = redisEnabled ? readRedis(accountNumber) : null;
+        if (balance == null) {
+            balance = userRepository.findBalanceByAccountNumber(accountNumber).orElse(null);
+            if (balance == null) {
+                return null;
+            }
+            writeRedis(accountNumber, balance);
+        }
+        putLocal(accountNumber, balance);
+        return balance;
+    }
+
+    public void put(String accountNumber, BigDecimal balance) {
+        putLocal(accountNumber, balance);
+        writeRedis(accountNumber, balance);
+    }
+
+    public void evict(String accountNumber) {
+        local.remove(accountNumber);
+        if (redisEnabled) {
+            try {
+                redisTemplate.getObject().delete(REDIS_PREFIX + accountNumber);
+            } catch (Exception e) {
+                logger.warn("Balance cache eviction in Redis failed for {}: {}", accountNumber, e.getMessage());
+            }
+        }
+    }
+
+    /**
+     * Re-reads and caches the balances of {@code accountNumbers} once the current
+     * transaction commits (immediately if there is none). Nothing is cached if it
+     * rolls back.
+     */
+    public void refreshAfterCommit(String... accountNumbers) {
+        Set<String> accounts = new TreeSet<>();
+        for (String accountNumber : accountNumbers) {
+            if (accountNumber != null) {
+                accounts.add(accountNumber);
+            }
+        }
+        if (accounts.isEmpty()) {
+            return;
+        }
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            accounts.forEach(this::refresh);
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                accounts.forEach(BalanceCache.this::refresh);
+            }
+        });
+    }
+
+    private void refresh(String accountNumber) {
+        try {
+            userRepository.findBalanceByAccountNumber(accountNumber).ifPresentOrElse(balance -> {
+                put(accountNumber, balance);
+                eventHub.publish(accountNumber, "balance",
+                        Map.of("accountNumber", accountNumber, "balance", balance));
+            }, () -> evict(accountNumber));
+        } catch (Exception e) {
+            // A failed refresh must not fail the (already committed) operation
+            logger.warn("Balance cache refresh failed for {}: {}", accountNumber, e.getMessage());
+            local.remove(accountNumber);
+        }
+    }
+
+    int localSize() {
+        return local.size();
+    }
+
+    private void putLocal(String accountNumber, BigDecimal balance) {
+        long now = System.currentTimeMillis();
+        if (local.size() >= localMaxEntries && !local.containsKey(accountNumber)) {
+            shrinkLocal(now);
+        }
+        long ttl = redisEnabled ? Math.min(ttlMs, localTtlWithRedisMs) : ttlMs;
+        local.put(accountNumber, new Entry(balance, now + ttl));
+    }
+
+    private void shrinkLocal(long now) {
+        local.values().removeIf(entry -> entry.expiresAt <= now);
+        int target = localMaxEntries - Math.max(1, localMaxEntries / 10);
+        Iterator<String> accounts = local.keySet().iterator();
+        while (local.size() > target && accounts.hasNext()) {
+            accounts.next();
+            accounts.remove();
+        }
+    }
+
+    private BigDecimal readRedis(String accountNumber) {
+        try {
+            String value = redisTemplate.getObject().opsForValue().get(REDIS_PREFIX + accountNumber);
+            return value != null ? new BigDecimal(value) : null;
+        } catch (Exception e) {
+            logger.warn("Balance cache read from Redis failed for {}: {}", accountNumber, e.getMessage());
+            return null;
+        }
+    }
+
+    private void writeRedis(String accountNumber, BigDecimal balance) {
+        if (!redisEnabled) {
+            return;
+        }
+        try {
+            redisTemplate.getObject().opsForValue()
+                    .set(REDIS_PREFIX + accountNumber, balance.toPlainString(), Duration.ofMillis(ttlMs));
+        } catch (Exception e) {
+            logger.warn("Balance cache write to Redis failed for {}: {}", accountNumber, e.getMessage());
+        }
+    }
+
+    private static class Entry {
+        private final BigDecimal balance;
+        private final long expiresAt;
+
+        Entry(BigDecimal balance, long expiresAt) {
+            this.balance = balance;
+            this.expiresAt = expiresAt;
+        }
+    }
+}
@@ -0,0 +1,189 @@
+package com.talachibank.api.service;
+
+import com.talachibank.api.model.TransactionStatus;
+import com.talachibank.api.repository.TransactionRepository;
+import com.talachibank.api.repository.UserRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.math.BigDecimal;
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.TreeSet;
+import java.util.UUID;
+
+/**
+ * Applies deferred recipient credits in batches.
+ *
+ * <p>
+ * With {@code talachibank.transfers.credit-batching.enabled=true},
+ * {@link TransactionService#executeTransaction} only debits the sender and
+ * leaves the transaction EXECUTED with {@code creditPosted = false}. Every
+ * window this component picks up those rows, sums the amounts per recipient
+ * account and applies each sum with a single UPDATE, then flags the rows as
+ * posted, all in one database transaction. Because the pending credits live in
+ * the transactions table, a crash between the debit and the credit loses
+ * nothing: the next run (on any instance) posts them. The ledger follows the
+ * balances: the execution moves the amount from the sender to
+ * {@link LedgerService#IN_TRANSIT_ACCOUNT}, the posting from there to the
+ * recipient. Credits whose recipient account no longer exists are refunded to
+ * the sender and the transaction is marked FAILED.
+ */
+@Component
+public class CreditAggregator {
+    private static final Logger logger = LoggerFactory.getLogger(CreditAggregator.class);
+
+    @Autowired
+    private TransactionRepository transactionRepository;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    @Autowired
+    private BalanceCache balanceCache;
+
+    @Autowired
+    private LedgerService ledgerService;
+
+    @Autowired
+    private TransactionService transactionService;
+
+    @Value("${talachibank.transfers.credit-batching.enabled:false}")
+    private boolean enabled;
+
+    @Value("${talachibank.transfers.credit-batching.max-batch:1000}")
+    private int maxBatch;
+
+    @Scheduled(fixedDelayString = "${talachibank.transfers.credit-batching.window-ms:200}")
+    public void postPendingCredits() {
+        if (!enabled) {
+            return;
+        }
+        try {
+            Integer resolved;
+            do {
+                resolved = transactionTemplate.execute(status -> postBatch());
+            } while (resolved != null && resolved >= maxBatch);
+        } catch (Exception e) {
+            logger.error("Posting pending credits failed: {}", e.getMessage(), e);
+        }
+    }
+
+    /**
+     * Posts one batch of pending credits.
+     *
+     * <p>
+     * Every balance change of the batch, recipient credits and refunds to
+     * senders alike, is summed per account and applied in one pass in account
+     * number order, the lock order of {@link TransactionService#executeTransaction},
+     * so instances working on crossing batches cannot deadlock.
+     *
+     * @return the number of pending rows resolved (posted or refunded); every
+     *         locked row is resolved, so a full batch means there may be more
+     */
+    private int postBatch() {
+        List<Object[]> pending = transactionRepository.lockPendingCredits(maxBatch);
+        if (pending.isEmpty()) {
+            return 0;
+        }
+
+        Set<String> recipients = new TreeSet<>();
+        pending.forEach(row -> recipients.add((String) row[1]));
+        Set<String> existing = new HashSet<>(userRepository.findExistingAccountNumbers(recipients));
+
+        Map<String, BigDecimal> changes = new TreeMap<>();
+        List<Object[]> posted = new ArrayList<>(pending.size());
+        List<Object[]> refunded = new ArrayList<>();
+        for (Object[] row : pending) {
+            BigDecimal amount = (BigDecimal) row[2];
+            if (existing.contains((String) row[1])) {
+                changes.merge((String) row[1], amount, BigDecimal::add);
+                posted.add(row);
+            } else {
+                // The recipient no longer exists: the amount goes back to the sender
+                changes.merge((String) row[3], amount, BigDecimal::add);
+                refunded.add(row);
+            }
+        }
+
+        Set<String> missing = new HashSet<>();
+        changes.forEach((account, amount) -> {
+            if (userRepository.credit(account, amount) == 0) {
+                if (existing.contains(account)) {
+                    // Deleted since the check above; roll back and sort it out on the next run
+                    throw new IllegalStateException("Account " + account + " disappeared while posting credits");
+                }
+                missing.add(account);
+            }
+        });
+
+        List<UUID> postedIds = new ArrayList<>(posted.size());
+        for (Object[] row : posted) {
+            UUID id = toUuid(row[0]);
+            ledgerService.recordDeferredCredit(id, (String) row[1], (BigDecimal) row[2]);
+            postedIds.add(id);
+        }
+        if (!postedIds.isEmpty()) {
+            transactionRepository.markCreditsPosted(postedIds);
+        }
+        if (!refunded.isEmpty()) {
+            fail(refunded, missing);
+        }
+
+        Set<String> touched = new TreeSet<>(changes.keySet());
+        touched.removeAll(missing);
+        balanceCache.refreshAfterCommit(touched.toArray(new String[0]));
+        logger.debug("Posted {} credits to {} accounts, refunded {}", posted.size(), existing.size(),
+                refunded.size());
+        return posted.size() + refunded.size();
+    }
+
+    /**
+     * Records the refunds already applied to the senders and marks the
+     * transactions FAILED, so they leave the pending queue instead of being
+     * retried forever.
+     */
+    private void fail(List<Object[]> rows, Set<String> missingSenders) {
+        List<UUID> failed = new ArrayList<>(rows.size());
+        for (Object[] row : rows) {
+            UUID id = toUuid(row[0]);
+            String recipient = (String) row[1];
+            BigDecimal amount = (BigDecimal) row[2];
+            String sender = (String) row[3];
+            if (missingSenders.contains(sender)) {
+                // Neither side exists any more; nothing can be returned
+                logger.error("Transaction {}: recipient {} and sender {} are both gone, {} not returned", id,
+                        recipient, sender, amount);
+            } else {
+                ledgerService.recordRefund(id, sender, amount);
+                logger.warn("Transaction {}: recipient {} no longer exists, {} returned to {}", id, recipient,
+                        amount, sender);
+            }
+            failed.add(id);
+            transactionService.recordTransition(TransactionStatus.EXECUTED, TransactionStatus.FAILED);
+        }
+        transactionRepository.updateStatus(failed, TransactionStatus.FAILED);
+    }
+
+    // Native queries return uuid columns as UUID on PostgreSQL but as 16 raw bytes on H2
+    private static UUID toUuid(Object value) {
+        if (value instanceof byte[] bytes) {
+            ByteBuffer buffer = ByteBuffer.wrap(bytes);
+            return new UUID(buffer.getLong(), buffer.getLong());
+        }
+        return value instanceof UUID uuid ? uuid : UUID.fromString(value.toString());
+    }
+}
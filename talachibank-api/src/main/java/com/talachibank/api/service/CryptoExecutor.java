@@ -0,0 +1,215 @@
+package com.talachibank.api.service;
+
+import com.talachibank.api.exception.CryptoSaturatedException;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.EnumMap;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.FutureTask;
+import java.util.concurrent.PriorityBlockingQueue;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Runs SDitH sign, verify and key generation on a fixed pool of platform
+ * threads, one per core by default.
+ *
+ * <p>
+ * Requests run on virtual threads and may be very numerous; the SDitH work is
+ * pure CPU, so letting each request compute inline would put as many
+ * computations on the carrier threads as there are requests and starve the
+ * I/O-bound ones. Callers block (cheaply, when they are virtual) until their
+ * computation has run here.
+ *
+ * <p>
+ * Waiting work is ordered by {@link Operation} priority, so token
+ * verification (every authenticated request) overtakes signing and key
+ * generation. Admission is bounded: once {@code queue-capacity} operations are
+ * waiting (half of that for key generation), new ones fail immediately with
+ * {@link CryptoSaturatedException}, which clients see as 503 with a
+ * Retry-After estimated from the backlog. Queue time, run time and rejections
+ * are recorded per operation.
+ */
+@Component
+public class CryptoExecutor {
+    private static final Logger logger = LoggerFactory.getLogger(CryptoExecutor.class);
+
+    private static final String THREAD_PREFIX = "sdith-crypto-";
+
+    public enum Operation {
+        VERIFY(0, true),
+        SIGN(1, true),
+        KEYGEN(2, true),
+        // Server key rotation must not be shed
+        KEY_ROTATION(1, false);
+
+        private final int priority;
+        private final boolean sheddable;
+
+        Operation(int priority, boolean sheddable) {
+            this.priority = priority;
+            this.sheddable = sheddable;
+        }
+    }
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @Value("${talachibank.crypto.threads:0}")
+    private int configuredThreads;
+
+    @Value("${talachibank.crypto.queue-capacity:256}")
+    private int queueCapacity;
+
+    private ThreadPoolExecutor pool;
+    private int threads;
+
+    private final AtomicInteger waiting = new AtomicInteger();
+    private final AtomicLong sequence = new AtomicLong();
+    // Moving average of the run time, for the Retry-After estimate
+    private volatile double averageRunNanos = 20_000_000d;
+
+    private final Map<Operation, Timer> queueTimers = new EnumMap<>(Operation.class);
+    private final Map<Operation, Timer> runTimers = new EnumMap<>(Operation.class);
+    private final Map<Operation, Counter> rejections = new EnumMap<>(Operation.class);
+
+    @PostConstruct
+    public void init() {
+        threads = configuredThreads > 0 ? configuredThreads : Runtime.getRuntime().availableProcessors();
+        AtomicInteger n = new AtomicInteger();
+        pool = new ThreadPoolExecutor(threads, threads, 0L, TimeUnit.MILLISECONDS, new PriorityBlockingQueue<>(),
+                r -> {
+                    Thread t = new Thread(r, THREAD_PREFIX + n.incrementAndGet());
+                    t.setDaemon(true);
+                    return t;
+                });
+        pool.prestartAllCoreThreads();
+
+        for (Operation op : Operation.values()) {
+            String tag = op.name().toLowerCase(Locale.ROOT);
+            queueTimers.put(op, meterRegistry.timer("talachibank.crypto.queue.time", "operation", tag));
+            runTimers.put(op, meterRegistry.timer("talachibank.crypto.run.time", "operation", tag));
+            rejections.put(op, meterRegistry.counter("talachibank.crypto.rejected", "operation", tag));
+        }
+        meterRegistry.gauge("talachibank.crypto.queue.depth", waiting);
+        logger.info("Crypto executor started: {} platform threads, queue capacity {}", threads, queueCapacity);
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        pool.shutdown();
+    }
+
+    /**
+     * Runs {@code work} on the crypto pool and waits for its result. Runtime
+     * exceptions thrown by the work are rethrown unchanged.
+     *
+     * @throws CryptoSaturatedException if the pool is saturated
+     */
+    public <T> T execute(Operation operation, Callable<T> work) {
+        if (isCryptoThread()) {
+            // Nested call from crypto work: queueing it behind ourselves could deadlock
+            return callInline(work);
+        }
+        admit(operation);
+
+        PrioritizedTask<T> task = new PrioritizedTask<>(operation, work);
+        try {
+            pool.execute(task);
+        } catch (RuntimeException e) {
+            waiting.decrementAndGet();
+            throw e;
+        }
+        try {
+            return task.get();
+        } catch (ExecutionException e) {
+            Throwable cause = e.getCause();
+            if (cause instanceof RuntimeException runtimeException) {
+                throw runtimeException;
+            }
+            if (cause instanceof Error error) {
+                throw error;
+            }
+            throw new RuntimeException("Crypto operation failed", cause);
+        } catch (InterruptedException e) {
+            task.cancel(true);
+            Thread.currentThread().interrupt();
+            throw new RuntimeException("Interrupted while waiting for crypto operation", e);
+        }
+    }
+
+    public int queueDepth() {
+        return waiting.get();
+    }
+
+    private void admit(Operation operation) {
+        int limit = operation == Operation.KEYGEN ? queueCapacity / 2 : queueCapacity;
+        int depth = waiting.incrementAndGet();
+        if (operation.sheddable && depth > limit) {
+            waiting.decrementAndGet();
+            rejections.get(operation).increment();
+            throw new CryptoSaturatedException("Signature service is busy, please retry", retryAfterSeconds(depth));
+        }
+    }
+
+    private long retryAfterSeconds(int depth) {
+        double backlogNanos = depth * averageRunNanos / threads;
+        return Math.max(1L, (long) Math.ceil(backlogNanos / 1_000_000_000d));
+    }
+
+    private static boolean isCryptoThread() {
+        return Thread.currentThread().getName().startsWith(THREAD_PREFIX);
+    }
+
+    private static <T> T callInline(Callable<T> work) {
+        try {
+            return work.call();
+        } catch (RuntimeException e) {
+            throw e;
+        } catch (Exception e) {
+            throw new RuntimeException("Crypto operation failed", e);
+        }
+    }
+
+    private final class PrioritizedTask<T> extends FutureTask<T> implements Comparable<PrioritizedTask<?>> {
+        private final Operation operation;
+        private final long seq = sequence.incrementAndGet();
+        private final long enqueuedAt = System.nanoTime();
+
+        PrioritizedTask(Operation operation, Callable<T> work) {
+            super(work);
+            this.operation = operation;
+        }
+
+        @Override
+        public void run() {
+            long start = System.nanoTime();
+            waiting.decrementAndGet();
+            queueTimers.get(operation).record(start - enqueuedAt, TimeUnit.NANOSECONDS);
+            super.run();
+            long elapsed = System.nanoTime() - start;
+            runTimers.get(operation).record(elapsed, TimeUnit.NANOSECONDS);
+            averageRunNanos = averageRunNanos * 0.9 + elapsed * 0.1;
+        }
+
+        @Override
+        public int compareTo(PrioritizedTask<?> other) {
+            int byPriority = Integer.compare(operation.priority, other.operation.priority);
+            return byPriority != 0 ? byPriority : Long.compare(seq, other.seq);
+        }
+    }
+}
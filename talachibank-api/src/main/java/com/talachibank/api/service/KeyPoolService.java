@@ -0,0 +1,213 @@
+package com.talachibank.api.service;
+
+import com.talachibank.api.exception.CryptoSaturatedException;
+import com.talachibank.api.model.PooledKeyPair;
+import com.talachibank.api.model.User;
+import com.talachibank.api.model.UserKeyPair;
+import com.talachibank.api.repository.KeyPoolRepository;
+import com.talachibank.signature.core.SDithKeyPair;
+import jakarta.annotation.PostConstruct;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.env.Environment;
+import org.springframework.core.env.Profiles;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import javax.crypto.Cipher;
+import javax.crypto.spec.GCMParameterSpec;
+import javax.crypto.spec.SecretKeySpec;
+import java.nio.ByteBuffer;
+import java.security.GeneralSecurityException;
+import java.security.SecureRandom;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Base64;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+/**
+ * Pool of pre-generated SDitH key pairs, one queue per security level.
+ *
+ * <p>
+ * A scheduled job keeps each level topped up to its target depth
+ * ({@code talachibank.keys.pool.target-depth}, e.g. {@code {128:200}}),
+ * generating on the crypto pool at key-generation priority and stopping for
+ * the round as soon as the pool sheds load. {@link #takeFor} hands out one key
+ * atomically: the row is locked with SKIP LOCKED and deleted in the caller's
+ * transaction, so concurrent registrations never get the same key and a
+ * registration that rolls back puts its key back.
+ *
+ * <p>
+ * Private keys are AES-256-GCM encrypted at rest with
+ * {@code talachibank.keys.pool.encryption-key} (base64, 32 bytes). The key is
+ * required: only the {@code dev} and {@code h2} profiles may run without it,
+ * on an ephemeral key whose pooled entries do not survive a restart.
+ */
+@Service
+public class KeyPoolService {
+    private static final Logger logger = LoggerFactory.getLogger(KeyPoolService.class);
+
+    private static final String CIPHER = "AES/GCM/NoPadding";
+    private static final int IV_BYTES = 12;
+    private static final int TAG_BITS = 128;
+
+    @Autowired
+    private KeyPoolRepository keyPoolRepository;
+
+    @Autowired
+    private SDitHTokenService sdithTokenService;
+
+    @Value("#{${talachibank.keys.pool.target-depth:{128:200}}}")
+    private Map<Integer, Integer> targetDepth;
+
+    @Value("${talachibank.keys.pool.refill-batch:32}")
+    private int refillBatch;
+
+    @Value("${talachibank.keys.pool.encryption-key:}")
+    private String encryptionKey;
+
+    // Joins the caller's transaction, or runs in its own when there is none
+    private final TransactionTemplate transaction;
+    private final Environment environment;
+    private final SecureRandom random = new SecureRandom();
+    private SecretKeySpec aesKey;
+
+    public KeyPoolService(PlatformTransactionManager transactionManager, Environment environment) {
+        this.transaction = new TransactionTemplate(transactionManager);
+        this.environment = environment;
+    }
+
+    @PostConstruct
+    public void init() {
+        byte[] keyBytes;
+        if (encryptionKey == null || encryptionKey.isBlank()) {
+            if (!environment.acceptsProfiles(Profiles.of("dev", "h2"))) {
+                throw new IllegalStateException("talachibank.keys.pool.encryption-key is not set; pooled keys "
+                        + "would be unreadable after a restart (only the dev profile may run without it)");
+            }
+            logger.warn("talachibank.keys.pool.encryption-key not set: pooled keys will not survive a restart");
+            keyBytes = new byte[32];
+            random.nextBytes(keyBytes);
+        } else {
+            keyBytes = Base64.getDecoder().decode(encryptionKey.trim());
+            if (keyBytes.length != 32) {
+                throw new IllegalStateException("talachibank.keys.pool.encryption-key must be 32 bytes (AES-256)");
+            }
+        }
+        aesKey = new SecretKeySpec(keyBytes, "AES");
+    }
+
+    /**
+     * Takes a pre-generated key for {@code user} out of the pool, as part of the
+     * current transaction if there is one.
+     *
+     * @return an unsaved ACTIVE key pair, or empty if the pool for that level is
+     *         empty
+     */
+    public Optional<UserKeyPair> takeFor(User user, int securityLevel) {
+        Optional<UserKeyPair> key = take(securityLevel);
+        key.ifPresent(k -> k.setUser(user));
+        return key;
+    }
+
+    /**
+     * Same as {@link #takeFor} for callers that attach the owner themselves
+     * (batch inserts by user id).
+     */
+    public Optional<UserKeyPair> take(int securityLevel) {
+        for (;;) {
+            Optional<PooledKeyPair> taken = transaction.execute(status -> {
+                Optional<PooledKeyPair> next = keyPoolRepository.lockNext(securityLevel);
+                next.ifPresent(keyPoolRepository::delete);
+                return next;
+            });
+            if (taken == null || taken.isEmpty()) {
+                return Optional.empty();
+            }
+            PooledKeyPair pooled = taken.get();
+            try {
+                return Optional.of(UserKeyPair.builder()
+                        .publicKey(pooled.getPublicKey())
+                        .syndrome(pooled.getSyndrome())
+                        .privateKeyEncrypted(decrypt(pooled.getPrivateKeyCiphertext()))
+                        .securityLevel(securityLevel)
+                        .status(UserKeyPair.KeyStatus.ACTIVE)
+                        .build());
+            } catch (GeneralSecurityException e) {
+                // Encrypted under another key (previous run); already removed, try the next one
+                logger.warn("Discarding pooled key {}: {}", pooled.getId(), e.getMessage());
+            }
+        }
+    }
+
+    @Scheduled(fixedDelayString = "${talachibank.keys.pool.refill-ms:10000}")
+    public void refill() {
+        targetDepth.forEach((level, target) -> {
+            long missing = target - keyPoolRepository.countBySecurityLevel(level);
+            while (missing > 0) {
+                int batch = (int) Math.min(missing, refillBatch);
+                int added = generateBatch(level, batch);
+                if (added < batch) {
+                    return; // crypto pool busy or failing; try again next round
+                }
+                missing -= added;
+            }
+        });
+    }
+
+    private int generateBatch(int level, int count) {
+        List<PooledKeyPair> generated = new ArrayList<>(count);
+        try (ExecutorService callers = Executors.newVirtualThreadPerTaskExecutor()) {
+            List<Future<SDithKeyPair>> futures = new ArrayList<>(count);
+            for (int i = 0; i < count; i++) {
+                futures.add(callers.submit(() -> sdithTokenService.generateKeyPair(level)));
+            }
+            for (Future<SDithKeyPair> future : futures) {
+                try {
+                    SDithKeyPair keyPair = future.get();
+                    generated.add(PooledKeyPair.builder()
+                            .securityLevel(level)
+                            .publicKey(keyPair.getPublicKey().getPublicKey())
+                            .syndrome(keyPair.getPublicKey().getSyndrome())
+                            .privateKeyCiphertext(encrypt(keyPair.getPrivateKey().getSecretKey()))
+                            .createdAt(LocalDateTime.now())
+                            .build());
+                } catch (Exception e) {
+                    Throwable cause = e.getCause() != null ? e.getCause() : e;
+                    if (!(cause instanceof CryptoSaturatedException)) {
+                        logger.warn("Key pool generation failed for level {}: {}", level, cause.getMessage());
+                    }
+                }
+            }
+        }
+        keyPoolRepository.saveAll(generated);
+        if (!generated.isEmpty()) {
+            logger.debug("Key pool level {}: added {}", level, generated.size());
+        }
+        return generated.size();
+    }
+
+    private byte[] encrypt(byte[] plaintext) throws GeneralSecurityException {
+        byte[] iv = new byte[IV_BYTES];
+        random.nextBytes(iv);
+        Cipher cipher = Cipher.getInstance(CIPHER);
+        cipher.init(Cipher.ENCRYPT_MODE, aesKey, new GCMParameterSpec(TAG_BITS, iv));
+        byte[] ciphertext = cipher.doFinal(plaintext);
+        return ByteBuffer.allocate(IV_BYTES + ciphertext.length).put(iv).put(ciphertext).array();
+    }
+
+    private byte[] decrypt(byte[] stored) throws GeneralSecurityException {
+        Cipher cipher = Cipher.getInstance(CIPHER);
+        cipher.init(Cipher.DECRYPT_MODE, aesKey, new GCMParameterSpec(TAG_BITS, stored, 0, IV_BYTES));
+        return cipher.doFinal(stored, IV_BYTES, stored.length - IV_BYTES);
+    }
+}
@@ -0,0 +1,171 @@
+package com.talachibank.api.service;
+
+import com.talachibank.api.exception.CryptoSaturatedException;
+import com.talachibank.api.model.User;
+import com.talachibank.api.model.UserKeyPair;
+import com.talachibank.api.repository.UserKeyPairRepository;
+import com.talachibank.signature.core.SDithKeyPair;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Generates user SDitH key pairs in the background.
+ *
+ * <p>
+ * {@link #requestKey} takes a pre-generated key from {@link KeyPoolService}
+ * when one is available. Otherwise it only inserts a PENDING key row; the key
+ * material is generated afterwards on the crypto pool and the row is switched
+ * to ACTIVE in a single conditional UPDATE (so a key is never activated twice,
+ * even if two instances pick it up). Failed attempts, including load shedding by
+ * {@link CryptoExecutor}, are retried with exponential backoff, and a periodic
+ * sweep re-submits keys left PENDING by a restart. Signing refuses keys that
+ * are not ACTIVE.
+ */
+@Service
+public class KeyProvisioningService {
+    private static final Logger logger = LoggerFactory.getLogger(KeyProvisioningService.class);
+
+    @Autowired
+    private UserKeyPairRepository userKeyPairRepository;
+
+    @Autowired
+    private SDitHTokenService sdithTokenService;
+
+    @Autowired
+    private KeyPoolService keyPoolService;
+
+    @Value("${talachibank.keys.provisioning.threads:2}")
+    private int threads;
+
+    @Value("${talachibank.keys.provisioning.max-attempts:5}")
+    private int maxAttempts;
+
+    @Value("${talachibank.keys.provisioning.retry-delay-ms:1000}")
+    private long retryDelayMs;
+
+    @Value("${talachibank.keys.provisioning.stale-after-ms:120000}")
+    private long staleAfterMs;
+
+    private ScheduledExecutorService executor;
+
+    // Keys with a provisioning attempt queued or running on this instance
+    private final Set<Long> inFlight = ConcurrentHashMap.newKeySet();
+
+    @PostConstruct
+    public void init() {
+        AtomicInteger n = new AtomicInteger();
+        executor = Executors.newScheduledThreadPool(Math.max(1, threads), r -> {
+            Thread t = new Thread(r, "key-provisioning-" + n.incrementAndGet());
+            t.setDaemon(true);
+            return t;
+        });
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        executor.shutdownNow();
+    }
+
+    /**
+     * Gives {@code user} a key: straight from {@link KeyPoolService} when the pool
+     * has one, otherwise as a PENDING key provisioned once the current
+     * transaction has committed. A pooled key is taken in the same transaction
+     * as the key row is saved, so it returns to the pool on rollback.
+     */
+    @Transactional
+    public UserKeyPair requestKey(User user, int securityLevel) {
+        Optional<UserKeyPair> pooled = keyPoolService.takeFor(user, securityLevel);
+        if (pooled.isPresent()) {
+            return userKeyPairRepository.save(pooled.get());
+        }
+
+        UserKeyPair pending = userKeyPairRepository.save(UserKeyPair.builder()
+                .user(user)
+                .securityLevel(securityLevel)
+                .status(UserKeyPair.KeyStatus.PENDING)
+                .build());
+
+        Long keyId = pending.getId();
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    submit(keyId, securityLevel, 1, 0L);
+                }
+            });
+        } else {
+            submit(keyId, securityLevel, 1, 0L);
+        }
+        return pending;
+    }
+
+    @Scheduled(fixedDelayString = "${talachibank.keys.provisioning.sweep-ms:300000}")
+    public void sweepPending() {
+        LocalDateTime cutoff = LocalDateTime.now().minusNanos(staleAfterMs * 1_000_000L);
+        List<UserKeyPair> stale = userKeyPairRepository
+                .findTop100ByStatusAndCreatedAtBefore(UserKeyPair.KeyStatus.PENDING, cutoff);
+        for (UserKeyPair key : stale) {
+            if (!inFlight.contains(key.getId())) {
+                logger.info("Re-submitting stale PENDING key {}", key.getId());
+                submit(key.getId(), key.getSecurityLevel(), 1, 0L);
+            }
+        }
+    }
+
+    private void submit(Long keyId, int securityLevel, int attempt, long delayMs) {
+        if (attempt == 1 && !inFlight.add(keyId)) {
+            return;
+        }
+        executor.schedule(() -> provision(keyId, securityLevel, attempt), delayMs, TimeUnit.MILLISECONDS);
+    }
+
+    private void provision(Long keyId, int securityLevel, int attempt) {
+        try {
+            SDithKeyPair keyPair = sdithTokenService.generateKeyPair(securityLevel);
+            int updated = userKeyPairRepository.activate(keyId,
+                    keyPair.getPublicKey().getPublicKey(),
+                    keyPair.getPublicKey().getSyndrome(),
+                    keyPair.getPrivateKey().getSecretKey(),
+                    UserKeyPair.KeyStatus.ACTIVE, UserKeyPair.KeyStatus.PENDING);
+            if (updated == 1) {
+                logger.info("SDitH key {} provisioned (attempt {})", keyId, attempt);
+            } else {
+                logger.debug("SDitH key {} was no longer PENDING", keyId);
+            }
+            inFlight.remove(keyId);
+        } catch (Exception e) {
+            if (attempt >= maxAttempts) {
+                // Stays PENDING; the sweep will try again later
+                logger.error("SDitH key {} provisioning failed after {} attempts: {}", keyId, attempt,
+                        e.getMessage());
+                inFlight.remove(keyId);
+                return;
+            }
+            long delay = e instanceof CryptoSaturatedException saturated
+                    ? Math.max(retryDelayMs, saturated.getRetryAfterSeconds() * 1000L)
+                    : retryDelayMs << (attempt - 1);
+            logger.warn("SDitH key {} provisioning attempt {} failed ({}), retrying in {} ms", keyId, attempt,
+                    e.getMessage(), delay);
+            submit(keyId, securityLevel, attempt + 1, delay);
+        }
+    }
+}
@@ -0,0 +1,164 @@
+package com.talachibank.api.service;
+
+import com.talachibank.api.model.LedgerEntry;
+import com.talachibank.api.repository.LedgerCheckpointRepository;
+import com.talachibank.api.repository.LedgerEntryRepository;
+import jakarta.annotation.PostConstruct;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.DependsOn;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.math.BigDecimal;
+import java.sql.Timestamp;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Keeps point-in-time ledger queries complete and cheap.
+ *
+ * <p>
+ * On start, accounts that predate the ledger (no OPENING or BACKFILL entry)
+ * get a BACKFILL entry equal to {@code users.balance} minus the net of the
+ * entries they already have, dated just before the first of them, so the
+ * ledger sums to the materialized balance. The rows are locked while this is
+ * computed, so concurrent transfers cannot slip in between; once an account
+ * is covered it is skipped, so the pass is a no-op after the first start.
+ *
+ * <p>
+ * Every night, each account with entries since the previous run gets a
+ * checkpoint of its balance as of midnight, and
+ * {@link LedgerService#balanceAt} only sums the entries after the latest
+ * checkpoint. The run is scheduled after midnight so transfers stamped just
+ * before it have committed.
+ */
+@Component
+@DependsOn("entityManagerFactory")
+public class LedgerMaintenance {
+    private static final Logger logger = LoggerFactory.getLogger(LedgerMaintenance.class);
+
+    private static final LocalDateTime NO_CHECKPOINT = LocalDateTime.of(1970, 1, 1, 0, 0);
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    @Autowired
+    private LedgerService ledgerService;
+
+    @Autowired
+    private LedgerEntryRepository ledgerEntryRepository;
+
+    @Autowired
+    private LedgerCheckpointRepository ledgerCheckpointRepository;
+
+    @Value("${talachibank.ledger.maintenance-batch:500}")
+    private int batchSize;
+
+    @PostConstruct
+    public void init() {
+        backfill();
+    }
+
+    public int backfill() {
+        int backfilled = 0;
+        long afterId = 0;
+        while (true) {
+            List<Long> ids = jdbcTemplate.queryForList(
+                    "select u.id from users u where u.id > ? and not exists (select 1 from ledger_entries e "
+                            + "where e.account_number = u.account_number and e.reference in (?, ?)) "
+                            + "order by u.id limit ?",
+                    Long.class, afterId, LedgerService.OPENING, LedgerService.BACKFILL, batchSize);
+            if (ids.isEmpty()) {
+                break;
+            }
+            afterId = ids.get(ids.size() - 1);
+            Integer done = transactionTemplate.execute(status -> backfillBatch(ids));
+            backfilled += done == null ? 0 : done;
+        }
+        if (backfilled > 0) {
+            logger.info("Ledger backfilled for {} accounts", backfilled);
+        }
+        return backfilled;
+    }
+
+    private int backfillBatch(List<Long> ids) {
+        String placeholders = String.join(", ", Collections.nCopies(ids.size(), "?"));
+        List<Map<String, Object>> accounts = jdbcTemplate.queryForList(
+                "select account_number, balance from users where id in (" + placeholders + ") "
+                        + "order by account_number for update",
+                ids.toArray());
+        int backfilled = 0;
+        for (Map<String, Object> account : accounts) {
+            String accountNumber = (String) account.get("account_number");
+            // Another instance may have backfilled it while we waited for the lock
+            if (ledgerEntryRepository.findFirstByAccountNumberAndReferenceInOrderByCreatedAtAsc(accountNumber,
+                    List.of(LedgerService.OPENING, LedgerService.BACKFILL)).isPresent()) {
+                continue;
+            }
+            BigDecimal balance = (BigDecimal) account.get("balance");
+            BigDecimal net = ledgerEntryRepository.sumAll(accountNumber, LedgerEntry.Direction.CREDIT);
+            LocalDateTime first = ledgerEntryRepository.findFirstEntryTime(accountNumber);
+            LocalDateTime at = first == null ? LocalDateTime.now() : first.minusNanos(1000);
+            // Checkpoints taken without the backfill would miss it
+            jdbcTemplate.update("delete from ledger_checkpoints where account_number = ?", accountNumber);
+            ledgerService.recordBackfill(accountNumber, balance.subtract(net), at);
+            backfilled++;
+        }
+        return backfilled;
+    }
+
+    @Scheduled(cron = "${talachibank.ledger.checkpoint-cron:0 30 0 * * *}")
+    public void checkpoint() {
+        checkpoint(LocalDate.now().atStartOfDay());
+    }
+
+    /**
+     * Records, for each account with entries in (previous cutoff, cutoff], its
+     * balance as of {@code cutoff}. Safe to run on several instances: a
+     * checkpoint that already exists is left alone.
+     */
+    int checkpoint(LocalDateTime cutoff) {
+        LocalDateTime latest = ledgerCheckpointRepository.findLatestAsOf();
+        LocalDateTime from = latest == null ? NO_CHECKPOINT : latest;
+        if (!cutoff.isAfter(from)) {
+            return 0;
+        }
+        int written = 0;
+        String afterAccount = "";
+        while (true) {
+            List<String> accounts = jdbcTemplate.queryForList(
+                    "select distinct account_number from ledger_entries where created_at > ? and created_at <= ? "
+                            + "and account_number > ? order by account_number limit ?",
+                    String.class, Timestamp.valueOf(from), Timestamp.valueOf(cutoff), afterAccount, batchSize);
+            if (accounts.isEmpty()) {
+                break;
+            }
+            afterAccount = accounts.get(accounts.size() - 1);
+            Integer done = transactionTemplate.execute(status -> {
+                int inserted = 0;
+                for (String accountNumber : accounts) {
+                    inserted += jdbcTemplate.update(
+                            "insert into ledger_checkpoints (account_number, as_of, balance) values (?, ?, ?) "
+                                    + "on conflict do nothing",
+                            accountNumber, Timestamp.valueOf(cutoff),
+                            ledgerService.ledgerBalanceAt(accountNumber, cutoff));
+                }
+                return inserted;
+            });
+            written += done == null ? 0 : done;
+        }
+        logger.info("Ledger checkpoints as of {}: {} accounts", cutoff, written);
+        return written;
+    }
+}
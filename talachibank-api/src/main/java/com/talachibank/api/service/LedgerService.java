@@ -0,0 +1,148 @@
+package com.talachibank.api.service;
+
+import com.talachibank.api.model.LedgerCheckpoint;
+import com.talachibank.api.model.LedgerEntry;
+import com.talachibank.api.model.Transaction;
+import com.talachibank.api.repository.LedgerCheckpointRepository;
+import com.talachibank.api.repository.LedgerEntryRepository;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Service;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Optional;
+import java.util.UUID;
+
+/**
+ * Append-only double-entry ledger.
+ *
+ * <p>
+ * The ledger is the source of truth for money movements; {@code users.balance}
+ * is the materialized balance kept up to date incrementally by the debit and
+ * credit statements, so balance reads stay a single-row lookup. Point-in-time
+ * balances for audits are rebuilt from the ledger alone.
+ *
+ * <p>
+ * An account's history is complete from its OPENING entry, posted when the
+ * account is created, or from the BACKFILL entry {@link LedgerMaintenance}
+ * posts for accounts that predate the ledger. Point-in-time queries are
+ * refused for accounts that have neither, and for instants before a backfill.
+ */
+@Service
+public class LedgerService {
+
+    // Counter-account for money entering the bank (recharges, opening balances)
+    public static final String EXTERNAL_ACCOUNT = "TAL-EXTERNAL";
+
+    // Holds batched transfers between the sender's debit and the recipient's credit (CreditAggregator)
+    public static final String IN_TRANSIT_ACCOUNT = "TAL-IN-TRANSIT";
+
+    static final String OPENING = "OPENING";
+    static final String BACKFILL = "BACKFILL";
+
+    private static final List<String> HISTORY_START = List.of(OPENING, BACKFILL);
+
+    @Autowired
+    private LedgerEntryRepository ledgerEntryRepository;
+
+    @Autowired
+    private LedgerCheckpointRepository ledgerCheckpointRepository;
+
+    public void recordTransfer(Transaction tx) {
+        post(tx.getTransactionId(), tx.getFromAccountNumber(), tx.getToAccountNumber(), tx.getAmount(), "TRANSFER");
+    }
+
+    /**
+     * Credit batching, at execution: the sender is debited, the funds are held
+     * in transit until {@link #recordDeferredCredit} (or {@link #recordRefund}),
+     * so each side's ledger moves when its {@code users.balance} does.
+     */
+    public void recordDeferredTransfer(Transaction tx) {
+        post(tx.getTransactionId(), tx.getFromAccountNumber(), IN_TRANSIT_ACCOUNT, tx.getAmount(), "TRANSFER");
+    }
+
+    public void recordDeferredCredit(UUID transactionId, String toAccountNumber, BigDecimal amount) {
+        post(transactionId, IN_TRANSIT_ACCOUNT, toAccountNumber, amount, "TRANSFER");
+    }
+
+    // A deferred credit that could not be applied: the funds in transit go back to the sender
+    public void recordRefund(UUID transactionId, String fromAccountNumber, BigDecimal amount) {
+        post(transactionId, IN_TRANSIT_ACCOUNT, fromAccountNumber, amount, "REVERSAL");
+    }
+
+    public void recordRecharge(String accountNumber, BigDecimal amount) {
+        post(null, EXTERNAL_ACCOUNT, accountNumber, amount, "RECHARGE");
+    }
+
+    // Posted for every new account, even at zero: it marks where the account's history starts
+    public void recordOpeningBalance(String accountNumber, BigDecimal amount) {
+        post(null, EXTERNAL_ACCOUNT, accountNumber, amount, OPENING, LocalDateTime.now());
+    }
+
+    /**
+     * Brings an account that predates the ledger in line with
+     * {@code users.balance}: {@code amount} is the balance minus the net of its
+     * existing entries, dated {@code at}, before the first of them.
+     */
+    void recordBackfill(String accountNumber, BigDecimal amount, LocalDateTime at) {
+        if (amount.signum() >= 0) {
+            post(null, EXTERNAL_ACCOUNT, accountNumber, amount, BACKFILL, at);
+        } else {
+            post(null, accountNumber, EXTERNAL_ACCOUNT, amount.negate(), BACKFILL, at);
+        }
+    }
+
+    /**
+     * @throws IllegalStateException if the ledger does not cover the account
+     *                               at {@code at}
+     */
+    public BigDecimal balanceAt(String accountNumber, LocalDateTime at) {
+        LedgerEntry start = ledgerEntryRepository
+                .findFirstByAccountNumberAndReferenceInOrderByCreatedAtAsc(accountNumber, HISTORY_START)
+                .orElseThrow(() -> new IllegalStateException(
+                        "Ledger history of account " + accountNumber + " is not available yet"));
+        if (BACKFILL.equals(start.getReference()) && at.isBefore(start.getCreatedAt())) {
+            throw new IllegalStateException(
+                    "Ledger history of account " + accountNumber + " starts at " + start.getCreatedAt());
+        }
+        return ledgerBalanceAt(accountNumber, at);
+    }
+
+    // Latest checkpoint at or before the instant, plus the entries since
+    BigDecimal ledgerBalanceAt(String accountNumber, LocalDateTime at) {
+        Optional<LedgerCheckpoint> checkpoint = ledgerCheckpointRepository
+                .findFirstByAccountNumberAndAsOfLessThanEqualOrderByAsOfDesc(accountNumber, at);
+        if (checkpoint.isEmpty()) {
+            return ledgerEntryRepository.sumUpTo(accountNumber, at, LedgerEntry.Direction.CREDIT);
+        }
+        return checkpoint.get().getBalance().add(ledgerEntryRepository.sumBetween(accountNumber,
+                checkpoint.get().getAsOf(), at, LedgerEntry.Direction.CREDIT));
+    }
+
+    private void post(UUID transactionId, String debitAccount, String creditAccount, BigDecimal amount,
+            String reference) {
+        post(transactionId, debitAccount, creditAccount, amount, reference, LocalDateTime.now());
+    }
+
+    private void post(UUID transactionId, String debitAccount, String creditAccount, BigDecimal amount,
+            String reference, LocalDateTime createdAt) {
+        LedgerEntry debit = LedgerEntry.builder()
+                .transactionId(transactionId)
+                .accountNumber(debitAccount)
+                .direction(LedgerEntry.Direction.DEBIT)
+                .amount(amount)
+                .reference(reference)
+                .createdAt(createdAt)
+                .build();
+        LedgerEntry credit = LedgerEntry.builder()
+                .transactionId(transactionId)
+                .accountNumber(creditAccount)
+                .direction(LedgerEntry.Direction.CREDIT)
+                .amount(amount)
+                .reference(reference)
+                .createdAt(createdAt)
+                .build();
+        ledgerEntryRepository.saveAll(List.of(debit, credit));
+    }
+}
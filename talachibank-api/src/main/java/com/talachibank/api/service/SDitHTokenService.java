@@ -1,11 +1,25 @@
 package com.talachibank.api.service;
 
+import com.talachibank.api.exception.CryptoSaturatedException;
+import com.talachibank.api.service.CryptoExecutor.Operation;
 import com.talachibank.signature.core.*;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
 import jakarta.annotation.PostConstruct;
+import javax.crypto.Mac;
+import javax.crypto.spec.SecretKeySpec;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.SecureRandom;
 import java.util.Base64;
+import java.util.Locale;
+import java.util.concurrent.Callable;
+import java.util.concurrent.TimeUnit;
 
 @Service
 public class SDitHTokenService {
@@ -17,12 +31,58 @@ public class SDitHTokenService {
     // Use L1 for standard operations (fastest)
     private static final int SECURITY_LEVEL = SDitHParameters.LEVEL_L1;
 
+    // Compact tokens: "<jwt>.~<base64url(tokenId || hmac)>", signature kept server-side
+    private static final char COMPACT_MARKER = '~';
+    private static final int TOKEN_ID_BYTES = 12;
+    private static final int TOKEN_MAC_BYTES = 16;
+    private static final String MAC_ALGORITHM = "HmacSHA256";
+
+    private static final int MAX_SIGNATURE_SIZE = SDitHSigner
+            .maxSignatureSize(new SDitHParameters(SECURITY_LEVEL));
+
+    @Value("${talachibank.security.compact-tokens:false}")
+    private boolean compactTokens;
+
+    // base64, at least 32 bytes; from configuration so that references cannot be forged. The
+    // tokens themselves are only known to the issuing instance (see SignedTokenStore)
+    @Value("${talachibank.security.compact-token-mac-key:}")
+    private String compactMacKeyBase64;
+
+    // Per-phase sign breakdown as metrics; the JFR events are available regardless
+    @Value("${talachibank.sdith.phase-metrics:false}")
+    private boolean phaseMetrics;
+
+    @Autowired
+    private SignedTokenStore signedTokenStore;
+
+    @Autowired
+    private CryptoExecutor cryptoExecutor;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    private final SecureRandom random = new SecureRandom();
+    private SecretKeySpec compactMacKey;
+
     @PostConstruct
     public void init() {
         try {
             logger.info("Initializing SDitH Token Service (Code-Based GF256)...");
             SDitHParameters params = new SDitHParameters(SECURITY_LEVEL);
             this.serverKeyPair = signer.generateKeyPair(params);
+            if (compactTokens) {
+                this.compactMacKey = compactMacKey(compactMacKeyBase64);
+            }
+            if (phaseMetrics) {
+                signer.setPhaseListener((phase, level, nanos, allocated) -> {
+                    String phaseTag = phase.name().toLowerCase(Locale.ROOT);
+                    String levelTag = String.valueOf(level);
+                    meterRegistry.timer("talachibank.sdith.sign.phase", "phase", phaseTag, "level", levelTag)
+                            .record(nanos, TimeUnit.NANOSECONDS);
+                    meterRegistry.summary("talachibank.sdith.sign.phase.allocated", "phase", phaseTag,
+                            "level", levelTag).record(allocated);
+                });
+            }
             logger.info("✓ Server Key Pair Generated.");
         } catch (Exception e) {
             logger.error("Failed to initialize SDitH service", e);
@@ -32,10 +92,28 @@ public class SDitHTokenService {
 
     public String signToken(String token) {
         try {
-            byte[] msg = token.getBytes(java.nio.charset.StandardCharsets.UTF_8);
-            byte[] signature = signer.sign(msg, serverKeyPair.getPrivateKey());
-            String sigB64 = Base64.getUrlEncoder().withoutPadding().encodeToString(signature);
-            return token + "." + sigB64;
+            SDithKeyPair keyPair = serverKeyPair;
+            if (compactTokens) {
+                String reference = issueCompactReference(token.getBytes(StandardCharsets.UTF_8), keyPair);
+                if (reference != null) {
+                    return token + "." + reference;
+                }
+                // Store full: this one goes out as a full token
+            }
+            // Message, signature and base64url all go through the crypto thread's
+            // scratch buffer; the returned string is the only allocation
+            return cryptoExecutor.execute(Operation.SIGN, () -> {
+                TokenCodec codec = TokenCodec.current(MAX_SIGNATURE_SIZE);
+                int length = codec.loadMessage(token, token.length());
+                if (length < 0) {
+                    throw new IllegalArgumentException("Token is not ASCII");
+                }
+                timed("sign", SECURITY_LEVEL, () -> signer.signInto(codec.message(), 0, length,
+                        keyPair.getPrivateKey(), codec.signatureBuffer()));
+                return codec.assemble(length);
+            });
+        } catch (CryptoSaturatedException e) {
+            throw e;
         } catch (Exception e) {
             logger.error("Token signing failed", e);
             throw new RuntimeException("Signing failed", e);
@@ -50,26 +128,113 @@ public class SDitHTokenService {
                 return false;
             }
 
-            String token = signedToken.substring(0, lastDot);
-            String sigB64 = signedToken.substring(lastDot + 1);
-
-            byte[] sigBytes = Base64.getUrlDecoder().decode(sigB64);
+            if (lastDot + 1 < signedToken.length() && signedToken.charAt(lastDot + 1) == COMPACT_MARKER) {
+                return verifyCompactSignature(signedToken.substring(0, lastDot), signedToken.substring(lastDot + 1));
+            }
 
-            boolean isValid = signer.verify(token.getBytes(java.nio.charset.StandardCharsets.UTF_8), sigBytes,
-                    serverKeyPair.getPublicKey());
-            return isValid;
+            // Decoded in place into the crypto thread's scratch buffer, no per-request copies
+            SDithKeyPair keyPair = serverKeyPair;
+            return cryptoExecutor.execute(Operation.VERIFY, () -> {
+                TokenCodec codec = TokenCodec.current(MAX_SIGNATURE_SIZE);
+                int signatureLength = codec.decodeSignature(signedToken, lastDot + 1, signedToken.length());
+                if (signatureLength < 0 || codec.loadMessage(signedToken, lastDot) < 0) {
+                    logger.warn("Token verification failed: Malformed signature segment");
+                    return false;
+                }
+                return timed("verify", SECURITY_LEVEL, () -> signer.verify(codec.message(), 0, lastDot,
+                        codec.signature(), 0, signatureLength, keyPair.getPublicKey()));
+            });
+        } catch (CryptoSaturatedException e) {
+            throw e;
         } catch (Exception e) {
             logger.error("Verification failed with exception: {}", e.getMessage());
             return false;
         }
     }
 
+    /**
+     * Signs and verifies the token once, registers its id and returns the
+     * compact reference segment (token id + HMAC) that replaces the signature in
+     * the header. Requests carrying the reference only need the HMAC check and a
+     * store lookup; the signature itself is not kept.
+     *
+     * @return the reference, or null if the store is full
+     */
+    private String issueCompactReference(byte[] msg, SDithKeyPair keyPair) throws Exception {
+        byte[] tokenId = new byte[TOKEN_ID_BYTES];
+        random.nextBytes(tokenId);
+        String id = Base64.getUrlEncoder().withoutPadding().encodeToString(tokenId);
+        if (!signedTokenStore.add(id)) {
+            return null;
+        }
+
+        byte[] signature = cryptoExecutor.execute(Operation.SIGN,
+                () -> timed("sign", SECURITY_LEVEL, () -> signer.sign(msg, keyPair.getPrivateKey())));
+        boolean verified = cryptoExecutor.execute(Operation.VERIFY,
+                () -> timed("verify", SECURITY_LEVEL, () -> signer.verify(msg, signature, keyPair.getPublicKey())));
+        if (!verified) {
+            signedTokenStore.remove(id);
+            throw new IllegalStateException("Freshly issued token signature did not verify");
+        }
+
+        byte[] reference = new byte[TOKEN_ID_BYTES + TOKEN_MAC_BYTES];
+        System.arraycopy(tokenId, 0, reference, 0, TOKEN_ID_BYTES);
+        System.arraycopy(computeMac(msg, tokenId), 0, reference, TOKEN_ID_BYTES, TOKEN_MAC_BYTES);
+        return COMPACT_MARKER + Base64.getUrlEncoder().withoutPadding().encodeToString(reference);
+    }
+
+    private boolean verifyCompactSignature(String token, String reference) throws Exception {
+        byte[] decoded = Base64.getUrlDecoder().decode(reference.substring(1));
+        if (decoded.length != TOKEN_ID_BYTES + TOKEN_MAC_BYTES) {
+            logger.warn("Token verification failed: Malformed compact reference");
+            return false;
+        }
+
+        byte[] msg = token.getBytes(StandardCharsets.UTF_8);
+        byte[] tokenId = java.util.Arrays.copyOfRange(decoded, 0, TOKEN_ID_BYTES);
+        byte[] mac = java.util.Arrays.copyOfRange(decoded, TOKEN_ID_BYTES, decoded.length);
+        if (!MessageDigest.isEqual(mac, java.util.Arrays.copyOf(computeMac(msg, tokenId), TOKEN_MAC_BYTES))) {
+            logger.warn("Token verification failed: Compact reference MAC mismatch");
+            return false;
+        }
+
+        // Registered only after a verified signature, and dropped on key rotation
+        if (!signedTokenStore.contains(Base64.getUrlEncoder().withoutPadding().encodeToString(tokenId))) {
+            logger.warn("Token verification failed: Unknown or expired compact token");
+            return false;
+        }
+        return true;
+    }
+
+    private static SecretKeySpec compactMacKey(String base64) {
+        if (base64 == null || base64.isBlank()) {
+            throw new IllegalStateException(
+                    "talachibank.security.compact-token-mac-key must be set when compact tokens are enabled");
+        }
+        byte[] key = Base64.getDecoder().decode(base64.trim());
+        if (key.length < 32) {
+            throw new IllegalStateException("talachibank.security.compact-token-mac-key must be at least 32 bytes");
+        }
+        return new SecretKeySpec(key, MAC_ALGORITHM);
+    }
+
+    private byte[] computeMac(byte[] msg, byte[] tokenId) throws Exception {
+        Mac mac = Mac.getInstance(MAC_ALGORITHM);
+        mac.init(compactMacKey);
+        mac.update(msg);
+        mac.update(tokenId);
+        return mac.doFinal();
+    }
+
     @org.springframework.scheduling.annotation.Scheduled(cron = "${talachibank.security.key-rotation:0 0 0 * * SUN}")
     public void rotateKeys() {
         try {
             logger.info("Rotating SDitH Server Keys...");
             SDitHParameters params = new SDitHParameters(SECURITY_LEVEL);
-            this.serverKeyPair = signer.generateKeyPair(params);
+            this.serverKeyPair = cryptoExecutor.execute(Operation.KEY_ROTATION,
+                    () -> timed("keygen", SECURITY_LEVEL, () -> signer.generateKeyPair(params)));
+            // Like full tokens, compact tokens issued under the previous key stop being valid
+            signedTokenStore.clear();
             logger.info("✓ Server Keys Rotated.");
         } catch (Exception e) {
             logger.error("Key rotation failed", e);
@@ -81,7 +246,10 @@ public class SDitHTokenService {
             SDitHParameters params = new SDitHParameters(SECURITY_LEVEL);
             SDithPrivateKey sk = new SDithPrivateKey(privateKeyBytes,
                     params);
-            return signer.sign(data, sk);
+            return cryptoExecutor.execute(Operation.SIGN,
+                    () -> timed("sign", SECURITY_LEVEL, () -> signer.sign(data, sk)));
+        } catch (CryptoSaturatedException e) {
+            throw e;
         } catch (Exception e) {
             logger.error("Data signing failed", e);
             throw new RuntimeException("Signing failed", e);
@@ -93,7 +261,10 @@ public class SDitHTokenService {
             SDitHParameters params = new SDitHParameters(SECURITY_LEVEL);
             SDithPublicKey pk = new SDithPublicKey(publicKeyBytes,
                     syndromeBytes, params);
-            return signer.verify(data, signature, pk);
+            return cryptoExecutor.execute(Operation.VERIFY,
+                    () -> timed("verify", SECURITY_LEVEL, () -> signer.verify(data, signature, pk)));
+        } catch (CryptoSaturatedException e) {
+            throw e;
         } catch (Exception e) {
             logger.error("Verification failed", e);
             return false;
@@ -112,12 +283,34 @@ public class SDitHTokenService {
     public SDithKeyPair generateKeyPair(int securityLevel) {
         try {
             SDitHParameters params = new SDitHParameters(securityLevel);
-            return signer.generateKeyPair(params);
+            return cryptoExecutor.execute(Operation.KEYGEN,
+                    () -> timed("keygen", securityLevel, () -> signer.generateKeyPair(params)));
+        } catch (CryptoSaturatedException e) {
+            throw e;
         } catch (Exception e) {
             throw new RuntimeException("Key generation failed", e);
         }
     }
 
+    /**
+     * Times one SDitH primitive as {@code talachibank.sdith.<operation>}, tagged
+     * with the security level and the outcome (a verify returning false counts
+     * as {@code invalid}). Runs on the crypto thread, so queueing time is not
+     * included; that is {@code talachibank.crypto.queue.time}.
+     */
+    private <T> T timed(String operation, int level, Callable<T> primitive) throws Exception {
+        Timer.Sample sample = Timer.start(meterRegistry);
+        String outcome = "error";
+        try {
+            T result = primitive.call();
+            outcome = Boolean.FALSE.equals(result) ? "invalid" : "ok";
+            return result;
+        } finally {
+            sample.stop(meterRegistry.timer("talachibank.sdith." + operation,
+                    "level", String.valueOf(level), "outcome", outcome));
+        }
+    }
+
     public String extractUnsignedToken(String signedToken) {
         String[] parts = signedToken.split("\\.");
         if (parts.length >= 3) {
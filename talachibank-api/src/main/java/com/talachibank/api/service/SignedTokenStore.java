@@ -0,0 +1,112 @@
+package com.talachibank.api.service;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Server-side registry of issued compact tokens.
+ *
+ * <p>
+ * A compact token carries only a short id (plus an HMAC) instead of the
+ * multi-KB SDitH signature, which was verified when the token was issued.
+ * Only the id and its issue time are kept here; presence in the store is what
+ * a compact token is checked against, until it reaches the token lifetime.
+ *
+ * <p>
+ * The store lives in this process: compact tokens are only accepted by the
+ * instance that issued them and do not survive a restart (the server key pair
+ * is regenerated on start anyway). Run a single instance or sticky sessions
+ * when they are enabled.
+ *
+ * <p>
+ * Entries only leave by expiry, so the store holds every compact token issued
+ * within one token lifetime. {@code talachibank.security.compact-token-store.max-entries}
+ * is a memory guard: when it is reached, {@link #add} refuses and the token is
+ * issued in full form instead, so no live session is ever evicted.
+ */
+@Service
+public class SignedTokenStore {
+	private static final Logger logger = LoggerFactory.getLogger(SignedTokenStore.class);
+
+	private final long maxTokenLifetimeMs;
+	private final int maxEntries;
+
+	// In-memory storage (Redis to be used in production): token id -> issue time (epoch ms)..
+	private final Map<String, Long> issuedAt = new ConcurrentHashMap<>();
+	private final AtomicLong refused = new AtomicLong();
+
+	public SignedTokenStore(@Value("${talachibank.app.jwtRefreshExpirationMs}") long maxTokenLifetimeMs,
+			@Value("${talachibank.security.compact-token-store.max-entries:1000000}") int maxEntries) {
+		if (maxEntries < 1) {
+			throw new IllegalArgumentException("talachibank.security.compact-token-store.max-entries must be positive");
+		}
+		this.maxTokenLifetimeMs = maxTokenLifetimeMs;
+		this.maxEntries = maxEntries;
+	}
+
+	/**
+	 * Registers a newly issued token.
+	 *
+	 * @return false if the store is full even after dropping expired entries;
+	 *         the caller then issues a full token
+	 */
+	public boolean add(String tokenId) {
+		if (issuedAt.size() >= maxEntries) {
+			purgeExpired();
+			if (issuedAt.size() >= maxEntries) {
+				refused.incrementAndGet();
+				return false;
+			}
+		}
+		issuedAt.put(tokenId, System.currentTimeMillis());
+		return true;
+	}
+
+	/**
+	 * @return true if the token was issued here and has not expired
+	 */
+	public boolean contains(String tokenId) {
+		Long issued = issuedAt.get(tokenId);
+		if (issued == null) {
+			return false;
+		}
+		if (issued < System.currentTimeMillis() - maxTokenLifetimeMs) {
+			issuedAt.remove(tokenId, issued);
+			return false;
+		}
+		return true;
+	}
+
+	public void remove(String tokenId) {
+		issuedAt.remove(tokenId);
+	}
+
+	/**
+	 * Drops every entry, e.g. after a server key rotation: like full tokens,
+	 * compact tokens issued under the previous key are no longer valid.
+	 */
+	public void clear() {
+		issuedAt.clear();
+	}
+
+	public int size() {
+		return issuedAt.size();
+	}
+
+	@Scheduled(fixedDelayString = "${talachibank.security.compact-token-purge-ms:600000}")
+	public void purgeExpired() {
+		long cutoff = System.currentTimeMillis() - maxTokenLifetimeMs;
+		issuedAt.values().removeIf(issued -> issued < cutoff);
+		long full = refused.getAndSet(0);
+		if (full > 0) {
+			logger.warn("Compact token store full: {} tokens issued in full form (max-entries={})", full, maxEntries);
+		}
+	}
+}
@@ -0,0 +1,219 @@
+package com.talachibank.api.service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.talachibank.api.dto.TransactionSummary;
+import com.talachibank.api.exception.ServiceSaturatedException;
+import com.talachibank.api.repository.TransactionRepository;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.UncheckedIOException;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.util.Comparator;
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+import java.util.concurrent.Semaphore;
+import java.util.stream.Stream;
+
+/**
+ * Writes account statements straight to the response.
+ *
+ * <p>
+ * Rows come from two forward-only JPA streams of {@link TransactionSummary}
+ * projections, one per side of the transfer, each already in the order of
+ * its index; they are merged here as they are read, like the history pages,
+ * so the database never sorts the whole statement. The JDBC driver fetches
+ * {@link TransactionRepository#STATEMENT_FETCH_SIZE} rows at a time (which
+ * PostgreSQL only honours inside a transaction) and rows are written out one
+ * by one, so memory use does not depend on the length of the history.
+ * Projections are not managed entities, so the persistence context stays
+ * empty too.
+ *
+ * <p>
+ * Each export holds a read-only transaction and a pooled connection for as
+ * long as the download lasts, so at most
+ * {@code talachibank.statements.max-concurrent} run at once; callers
+ * {@link #reserveSlot() reserve} a slot up front and get a 503 when none is
+ * free.
+ */
+@Service
+public class StatementExportService {
+
+    public enum Format {
+        CSV, NDJSON
+    }
+
+    private static final long RETRY_AFTER_SECONDS = 30;
+
+    // Same order as the queries: uuid comparison in the database is unsigned, like its hex string
+    private static final Comparator<TransactionSummary> STATEMENT_ORDER = Comparator
+            .comparing(TransactionSummary::getInitiatedAt)
+            .thenComparing(s -> s.getTransactionId().toString());
+
+    private static final String CSV_HEADER = "transaction_id,initiated_at,executed_at,type,direction,"
+            + "counterparty,beneficiary,amount,currency,status,description";
+
+    @Autowired
+    private TransactionRepository transactionRepository;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    private final TransactionTemplate readOnlyTransaction;
+    private final Semaphore slots;
+
+    @Value("${talachibank.statements.flush-every:500}")
+    private int flushEvery;
+
+    public StatementExportService(PlatformTransactionManager transactionManager,
+            @Value("${talachibank.statements.max-concurrent:4}") int maxConcurrent) {
+        this.readOnlyTransaction = new TransactionTemplate(transactionManager);
+        this.readOnlyTransaction.setReadOnly(true);
+        this.slots = new Semaphore(maxConcurrent);
+    }
+
+    /**
+     * Takes one of the export slots; release it with {@link #releaseSlot()}
+     * once the statement is written.
+     *
+     * @throws ServiceSaturatedException if every slot is taken
+     */
+    public void reserveSlot() {
+        if (!slots.tryAcquire()) {
+            throw new ServiceSaturatedException("Too many statement exports in progress, please retry",
+                    RETRY_AFTER_SECONDS);
+        }
+    }
+
+    public void releaseSlot() {
+        slots.release();
+    }
+
+    public void writeStatement(String accountNumber, LocalDateTime from, LocalDateTime to, Format format,
+            OutputStream out) throws IOException {
+        Writer writer = new BufferedWriter(new OutputStreamWriter(out, StandardCharsets.UTF_8), 16 * 1024);
+        try {
+            readOnlyTransaction.executeWithoutResult(status -> {
+                try (Stream<TransactionSummary> sent = transactionRepository.streamSentStatement(accountNumber, from,
+                        to);
+                        Stream<TransactionSummary> received = transactionRepository
+                                .streamReceivedStatement(accountNumber, from, to)) {
+                    Iterator<TransactionSummary> rows = merge(sent.iterator(), received.iterator());
+                    if (format == Format.CSV) {
+                        writeCsv(accountNumber, rows, writer);
+                    } else {
+                        writeNdjson(rows, writer);
+                    }
+                    writer.flush();
+                } catch (IOException e) {
+                    throw new UncheckedIOException(e);
+                }
+            });
+        } catch (UncheckedIOException e) {
+            throw e.getCause();
+        }
+    }
+
+    // Merges two ordered legs; a self-transfer is in both and comes out once
+    static Iterator<TransactionSummary> merge(Iterator<TransactionSummary> sent,
+            Iterator<TransactionSummary> received) {
+        return new Iterator<>() {
+            private TransactionSummary nextSent = sent.hasNext() ? sent.next() : null;
+            private TransactionSummary nextReceived = received.hasNext() ? received.next() : null;
+
+            @Override
+            public boolean hasNext() {
+                return nextSent != null || nextReceived != null;
+            }
+
+            @Override
+            public TransactionSummary next() {
+                if (!hasNext()) {
+                    throw new NoSuchElementException();
+                }
+                int order = nextSent == null ? 1
+                        : nextReceived == null ? -1 : STATEMENT_ORDER.compare(nextSent, nextReceived);
+                TransactionSummary row = order <= 0 ? nextSent : nextReceived;
+                if (order <= 0) {
+                    nextSent = sent.hasNext() ? sent.next() : null;
+                }
+                if (order >= 0) {
+                    nextReceived = received.hasNext() ? received.next() : null;
+                }
+                return row;
+            }
+        };
+    }
+
+    private void writeCsv(String accountNumber, Iterator<TransactionSummary> rows, Writer writer)
+            throws IOException {
+        writer.write(CSV_HEADER);
+        writer.write('\n');
+        int count = 0;
+        while (rows.hasNext()) {
+            TransactionSummary tx = rows.next();
+            boolean outgoing = accountNumber.equals(tx.getFromAccountNumber());
+            writer.write(String.valueOf(tx.getTransactionId()));
+            writer.write(',');
+            writer.write(String.valueOf(tx.getInitiatedAt()));
+            writer.write(',');
+            writer.write(tx.getExecutedAt() != null ? tx.getExecutedAt().toString() : "");
+            writer.write(',');
+            writer.write(tx.getTransactionType() != null ? tx.getTransactionType().name() : "");
+            writer.write(',');
+            writer.write(outgoing ? "DEBIT" : "CREDIT");
+            writer.write(',');
+            writer.write(csv(outgoing ? tx.getToAccountNumber() : tx.getFromAccountNumber()));
+            writer.write(',');
+            writer.write(csv(tx.getBeneficiaryName()));
+            writer.write(',');
+            writer.write(tx.getAmount() != null ? (outgoing ? tx.getAmount().negate() : tx.getAmount()).toPlainString() : "");
+            writer.write(',');
+            writer.write(csv(tx.getCurrency()));
+            writer.write(',');
+            writer.write(tx.getStatus() != null ? tx.getStatus().name() : "");
+            writer.write(',');
+            writer.write(csv(tx.getDescription()));
+            writer.write('\n');
+            if (++count % flushEvery == 0) {
+                writer.flush();
+            }
+        }
+    }
+
+    private void writeNdjson(Iterator<TransactionSummary> rows, Writer writer) throws IOException {
+        int count = 0;
+        while (rows.hasNext()) {
+            TransactionSummary tx = rows.next();
+            writer.write(objectMapper.writeValueAsString(tx));
+            writer.write('\n');
+            if (++count % flushEvery == 0) {
+                writer.flush();
+            }
+        }
+    }
+
+    // RFC 4180 quoting, plus a leading quote for values a spreadsheet would treat as a formula
+    private static String csv(String value) {
+        if (value == null || value.isEmpty()) {
+            return "";
+        }
+        char first = value.charAt(0);
+        boolean formula = first == '=' || first == '+' || first == '-' || first == '@';
+        if (!formula && value.indexOf(',') < 0 && value.indexOf('"') < 0 && value.indexOf('\n') < 0
+                && value.indexOf('\r') < 0) {
+            return value;
+        }
+        String escaped = value.replace("\"", "\"\"");
+        return "\"" + (formula ? "'" : "") + escaped + "\"";
+    }
+}
@@ -1,8 +1,13 @@
 package com.talachibank.api.service;
 
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PostConstruct;
+import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Service;
 import java.util.Set;
 import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
 
 @Service
 public class TokenBlacklistService {
@@ -10,12 +15,27 @@ public class TokenBlacklistService {
 	// In-memory storage (Redis to be used in production)..
 	private final Set<String> blacklistedTokens = ConcurrentHashMap.newKeySet();
 
+	@Autowired
+	private MeterRegistry meterRegistry;
+
+	private Timer hits;
+	private Timer misses;
+
+	@PostConstruct
+	public void init() {
+		hits = meterRegistry.timer("talachibank.token.blacklist.check", "result", "hit");
+		misses = meterRegistry.timer("talachibank.token.blacklist.check", "result", "miss");
+	}
+
 	public void blacklistToken(String token) {
 		blacklistedTokens.add(token);
 	}
 
 	public boolean isBlacklisted(String token) {
-		return blacklistedTokens.contains(token);
+		long start = System.nanoTime();
+		boolean blacklisted = blacklistedTokens.contains(token);
+		(blacklisted ? hits : misses).record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+		return blacklisted;
 	}
 
 	public void removeToken(String token) {
@@ -0,0 +1,173 @@
+package com.talachibank.api.service;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+
+/**
+ * Byte-level assembly and parsing of SDitH-signed tokens
+ * ({@code <jwt>.<base64url(signature)>}).
+ *
+ * <p>
+ * The JWT text, the raw signature and its base64url form all live in one
+ * per-thread scratch buffer, so signing a token allocates only the final
+ * header string and verifying one allocates nothing of signature size. The
+ * buffers are thread-local and meant for the bounded set of crypto platform
+ * threads ({@link CryptoExecutor}); they must not be used from request
+ * (virtual) threads, which would each get their own copy.
+ */
+final class TokenCodec {
+
+    private static final byte[] ALPHABET = "ABCDEFGHIJKLMNOPQRSTUVWXYZabcdefghijklmnopqrstuvwxyz0123456789-_"
+            .getBytes(StandardCharsets.US_ASCII);
+    private static final byte[] DECODE = new byte[128];
+
+    static {
+        java.util.Arrays.fill(DECODE, (byte) -1);
+        for (int i = 0; i < ALPHABET.length; i++) {
+            DECODE[ALPHABET[i]] = (byte) i;
+        }
+    }
+
+    private static final ThreadLocal<TokenCodec> LOCAL = new ThreadLocal<>();
+
+    private final int maxSignatureSize;
+    private byte[] text;
+    private final ByteBuffer signature;
+
+    private TokenCodec(int maxSignatureSize) {
+        this.maxSignatureSize = maxSignatureSize;
+        this.text = new byte[1024 + encodedLength(maxSignatureSize)];
+        this.signature = ByteBuffer.allocate(maxSignatureSize);
+    }
+
+    /**
+     * The calling thread's codec, sized for signatures of at most
+     * {@code maxSignatureSize} bytes.
+     */
+    static TokenCodec current(int maxSignatureSize) {
+        TokenCodec codec = LOCAL.get();
+        if (codec == null || codec.maxSignatureSize != maxSignatureSize) {
+            codec = new TokenCodec(maxSignatureSize);
+            LOCAL.set(codec);
+        }
+        return codec;
+    }
+
+    /**
+     * Copies the (ASCII) JWT into the scratch buffer as the message to sign.
+     *
+     * @return the message length, or -1 if the token is not ASCII
+     */
+    int loadMessage(CharSequence token, int length) {
+        ensureCapacity(length + 1 + encodedLength(maxSignatureSize));
+        for (int i = 0; i < length; i++) {
+            char c = token.charAt(i);
+            if (c > 0x7F) {
+                return -1;
+            }
+            text[i] = (byte) c;
+        }
+        return length;
+    }
+
+    /** The scratch message buffer; bytes {@code [0, length)} from {@link #loadMessage}. */
+    byte[] message() {
+        return text;
+    }
+
+    /** Cleared signature buffer to sign into. */
+    ByteBuffer signatureBuffer() {
+        return signature.clear();
+    }
+
+    /**
+     * Appends {@code "." + base64url(signature)} to the message in the scratch
+     * buffer and returns the whole token as a string.
+     */
+    String assemble(int messageLength) {
+        int signatureLength = signature.position();
+        int end = messageLength;
+        text[end++] = '.';
+        end = encode(signature.array(), signatureLength, text, end);
+        return new String(text, 0, end, StandardCharsets.ISO_8859_1);
+    }
+
+    /**
+     * Decodes the base64url signature segment {@code token[start, end)} into
+     * the signature buffer, accepting optional {@code =} padding.
+     *
+     * @return the signature length, or -1 if the segment is not valid
+     *         base64url or too large
+     */
+    int decodeSignature(CharSequence token, int start, int end) {
+        while (end > start && token.charAt(end - 1) == '=') {
+            end--;
+        }
+        int chars = end - start;
+        if (chars % 4 == 1) {
+            return -1;
+        }
+        int length = chars / 4 * 3 + Math.max(0, chars % 4 - 1);
+        if (length > maxSignatureSize) {
+            return -1;
+        }
+
+        byte[] out = signature.array();
+        int o = 0;
+        int bits = 0;
+        int buffered = 0;
+        for (int i = start; i < end; i++) {
+            char c = token.charAt(i);
+            int v = c < 128 ? DECODE[c] : -1;
+            if (v < 0) {
+                return -1;
+            }
+            bits = ((bits << 6) | v) & 0xFFFFFF;
+            buffered += 6;
+            if (buffered >= 8) {
+                buffered -= 8;
+                out[o++] = (byte) (bits >> buffered);
+            }
+        }
+        return o;
+    }
+
+    /** The decoded signature; bytes {@code [0, length)} from {@link #decodeSignature}. */
+    byte[] signature() {
+        return signature.array();
+    }
+
+    static int encodedLength(int bytes) {
+        return bytes / 3 * 4 + (bytes % 3 == 0 ? 0 : bytes % 3 + 1);
+    }
+
+    // Unpadded base64url of src[0, length) written at dst[offset]; returns the end offset
+    private static int encode(byte[] src, int length, byte[] dst, int offset) {
+        int i = 0;
+        for (; i + 3 <= length; i += 3) {
+            int v = (src[i] & 0xFF) << 16 | (src[i + 1] & 0xFF) << 8 | (src[i + 2] & 0xFF);
+            dst[offset++] = ALPHABET[v >>> 18];
+            dst[offset++] = ALPHABET[(v >>> 12) & 0x3F];
+            dst[offset++] = ALPHABET[(v >>> 6) & 0x3F];
+            dst[offset++] = ALPHABET[v & 0x3F];
+        }
+        int rest = length - i;
+        if (rest == 1) {
+            int v = (src[i] & 0xFF) << 16;
+            dst[offset++] = ALPHABET[v >>> 18];
+            dst[offset++] = ALPHABET[(v >>> 12) & 0x3F];
+        } else if (rest == 2) {
+            int v = (src[i] & 0xFF) << 16 | (src[i + 1] & 0xFF) << 8;
+            dst[offset++] = ALPHABET[v >>> 18];
+            dst[offset++] = ALPHABET[(v >>> 12) & 0x3F];
+            dst[offset++] = ALPHABET[(v >>> 6) & 0x3F];
+        }
+        return offset;
+    }
+
+    private void ensureCapacity(int capacity) {
+        if (text.length < capacity) {
+            text = new byte[Math.max(capacity, text.length * 2)];
+        }
+    }
+}
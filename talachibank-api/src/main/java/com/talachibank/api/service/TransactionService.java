@@ -1,5 +1,9 @@
 package com.talachibank.api.service;
 
+import com.talachibank.api.dto.CursorPage;
+import com.talachibank.api.dto.TransactionDetail;
+import com.talachibank.api.dto.TransactionSummary;
+import com.talachibank.api.exception.InsufficientFundsException;
 import com.talachibank.api.model.Transaction;
 import com.talachibank.api.model.TransactionStatus;
 import com.talachibank.api.model.User;
@@ -7,21 +11,39 @@ import com.talachibank.api.model.UserKeyPair;
 import com.talachibank.api.repository.TransactionRepository;
 import com.talachibank.api.repository.UserKeyPairRepository;
 import com.talachibank.api.repository.UserRepository;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
 
 import java.math.BigDecimal;
 import java.time.LocalDateTime;
 import lombok.NonNull;
+import java.util.ArrayList;
 import java.util.Base64;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.UUID;
 import java.nio.charset.StandardCharsets;
 import java.security.MessageDigest;
 
 @Service
 public class TransactionService {
+    private static final Logger logger = LoggerFactory.getLogger(TransactionService.class);
 
     @Autowired
     private TransactionRepository transactionRepository;
@@ -38,6 +60,39 @@ public class TransactionService {
     @Autowired
     private AuditService auditService;
 
+    @Autowired
+    private TransferLaneExecutor transferLanes;
+
+    @Autowired
+    private LedgerService ledgerService;
+
+    @Autowired
+    private BalanceCache balanceCache;
+
+    @Autowired
+    private AccountEventHub eventHub;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    @Value("${talachibank.transfers.credit-batching.enabled:false}")
+    private boolean creditBatching;
+
+    public static final int MAX_PAGE_SIZE = 200;
+
+    private static final UUID MAX_UUID = new UUID(-1L, -1L);
+
+    private static final Comparator<TransactionSummary> HISTORY_ORDER = Comparator
+            .comparing(TransactionSummary::getInitiatedAt)
+            .thenComparing(s -> s.getTransactionId().toString())
+            .reversed();
+
     @Transactional
     public Transaction createTransaction(Transaction tx, User user) {
         // 1. Validate sufficient funds
@@ -56,10 +111,12 @@ public class TransactionService {
 
         tx.setInitiatedBy(user);
         tx.setFromAccountNumber(user.getAccountNumber());
+        recordTransition(null, TransactionStatus.PENDING);
         tx.setStatus(TransactionStatus.PENDING);
         tx.setInitiatedAt(LocalDateTime.now());
 
         Transaction savedTx = transactionRepository.save(tx);
+        publishStatus(savedTx);
 
         auditService.logAction(user.getId(), "CREATE_TRANSACTION", savedTx.getTransactionId().toString(),
                 "Created transaction to " + tx.getToAccountNumber() + " amount " + tx.getAmount(), "0.0.0.0");
@@ -67,9 +124,31 @@ public class TransactionService {
         return savedTx;
     }
 
-    @Transactional
+    /**
+     * Executes a signed transaction on the transfer lane of its recipient, so
+     * that transfers into the same (possibly hot) account run one after another
+     * instead of contending on that account's row lock. A transfer the sender
+     * cannot cover is marked FAILED.
+     */
     public Transaction executeTransaction(@NonNull UUID transactionId, @NonNull User user) {
-        Transaction tx = transactionRepository.findById(transactionId)
+        String recipientAccount = transactionRepository.findToAccountNumberByTransactionId(transactionId)
+                .orElseThrow(() -> new RuntimeException("Transaction not found"));
+
+        return transferLanes.execute(recipientAccount, () -> {
+            try {
+                return transactionTemplate.execute(status -> doExecuteTransaction(transactionId, user));
+            } catch (InsufficientFundsException e) {
+                // The attempt rolled back as a whole; the FAILED status is committed on its own
+                transactionTemplate.executeWithoutResult(status -> markFailed(transactionId));
+                throw e;
+            }
+        });
+    }
+
+    private Transaction doExecuteTransaction(UUID transactionId, User user) {
+        // Lock the transaction row first: a concurrent execute of the same id waits
+        // here and then sees EXECUTED instead of transferring the funds twice.
+        Transaction tx = transactionRepository.findByIdForUpdate(transactionId)
                 .orElseThrow(() -> new RuntimeException("Transaction not found"));
 
         if (tx.getStatus() != TransactionStatus.SIGNED) {
@@ -80,36 +159,45 @@ public class TransactionService {
             throw new IllegalStateException("Transaction signature not verified.");
         }
 
-        // Final check on funds (in case balance changed since creation)
+        // Single-statement debit/credit: the row locks are taken by the UPDATEs
+        // themselves and the funds check is part of the debit's WHERE clause.
+        // Statements run in account number order so that opposite transfers
+        // A->B and B->A cannot deadlock.
         User sender = tx.getInitiatedBy();
-        if (sender.getBalance().compareTo(tx.getAmount()) < 0) {
-            tx.setStatus(TransactionStatus.FAILED);
-            transactionRepository.save(tx);
-            throw new RuntimeException("Insufficient funds for execution.");
+        if (creditBatching) {
+            // The credit is applied later, coalesced with other credits to the same
+            // account; the EXECUTED row with creditPosted=false is the durable record.
+            debitSender(tx, sender);
+            tx.setCreditPosted(false);
+        } else if (tx.getFromAccountNumber().compareTo(tx.getToAccountNumber()) <= 0) {
+            debitSender(tx, sender);
+            creditRecipient(tx);
+            tx.setCreditPosted(true);
+        } else {
+            creditRecipient(tx);
+            debitSender(tx, sender);
+            tx.setCreditPosted(true);
+        }
+        if (creditBatching) {
+            ledgerService.recordDeferredTransfer(tx);
+            balanceCache.refreshAfterCommit(tx.getFromAccountNumber());
+        } else {
+            ledgerService.recordTransfer(tx);
+            balanceCache.refreshAfterCommit(tx.getFromAccountNumber(), tx.getToAccountNumber());
         }
 
-        User recipient = userRepository.findByAccountNumber(tx.getToAccountNumber())
-                .orElseThrow(() -> new RuntimeException("Recipient account no longer exists."));
-
-        // Atomic update
-        java.math.BigDecimal oldSenderBalance = sender.getBalance();
-        java.math.BigDecimal oldRecipientBalance = recipient.getBalance();
-
-        sender.setBalance(sender.getBalance().subtract(tx.getAmount()));
-        recipient.setBalance(recipient.getBalance().add(tx.getAmount()));
-
-        userRepository.save(sender);
-        userRepository.save(recipient);
-
+        recordTransition(tx.getStatus(), TransactionStatus.EXECUTED);
         tx.setStatus(TransactionStatus.EXECUTED);
         tx.setExecutedAt(LocalDateTime.now());
         Transaction executedTx = transactionRepository.save(tx);
+        publishStatus(executedTx);
+
+        // The bulk updates bypassed the persistence context; reload the sender so
+        // the response carries the post-transfer balance.
+        entityManager.refresh(sender);
 
-        System.out.println("DEBUG: Transaction Execution - " + tx.getTransactionId());
-        System.out.println("DEBUG: Sender (" + sender.getAccountNumber() + ") Balance: " + oldSenderBalance + " -> "
-                + sender.getBalance());
-        System.out.println("DEBUG: Recipient (" + recipient.getAccountNumber() + ") Balance: " + oldRecipientBalance
-                + " -> " + recipient.getBalance());
+        logger.debug("Transaction executed id={} from={} to={} amount={} senderBalance={}", tx.getTransactionId(),
+                tx.getFromAccountNumber(), tx.getToAccountNumber(), tx.getAmount(), sender.getBalance());
 
         auditService.logAction(user.getId(), "EXECUTE_TRANSACTION", transactionId.toString(),
                 "Funds transferred from " + tx.getFromAccountNumber() + " to " + tx.getToAccountNumber() + " amount "
@@ -119,6 +207,28 @@ public class TransactionService {
         return executedTx;
     }
 
+    private void debitSender(Transaction tx, User sender) {
+        if (userRepository.debit(sender.getId(), tx.getAmount()) == 0) {
+            throw new InsufficientFundsException("Insufficient funds for execution.");
+        }
+    }
+
+    private void markFailed(UUID transactionId) {
+        Transaction tx = transactionRepository.findByIdForUpdate(transactionId).orElse(null);
+        if (tx == null || tx.getStatus() != TransactionStatus.SIGNED) {
+            return;
+        }
+        recordTransition(tx.getStatus(), TransactionStatus.FAILED);
+        tx.setStatus(TransactionStatus.FAILED);
+        publishStatus(transactionRepository.save(tx));
+    }
+
+    private void creditRecipient(Transaction tx) {
+        if (userRepository.credit(tx.getToAccountNumber(), tx.getAmount()) == 0) {
+            throw new RuntimeException("Recipient account no longer exists.");
+        }
+    }
+
     public BigDecimal getUserBalance(User user) {
         return user.getBalance();
     }
@@ -140,9 +250,15 @@ public class TransactionService {
             throw new RuntimeException("Key Pair does not belong to user");
         }
 
+        if (keyPair.getStatus() == UserKeyPair.KeyStatus.PENDING) {
+            throw new RuntimeException("Signing key is still being generated, please retry shortly");
+        }
+        if (keyPair.getStatus() != UserKeyPair.KeyStatus.ACTIVE) {
+            throw new RuntimeException("Key Pair is not active");
+        }
+
         // 1. Compute Hash of transaction data
-        String dataToSign = buildDataString(tx);
-        String hash = computeHash(dataToSign);
+        String hash = hashTransaction(tx);
         tx.setTransactionHash(hash);
 
         // 2. Sign Hash
@@ -152,6 +268,7 @@ public class TransactionService {
                                                                                                  // service
         tx.setSdithSignature(signature);
         tx.setSignatureLevel(keyPair.getSecurityLevel());
+        recordTransition(tx.getStatus(), TransactionStatus.SIGNED);
         tx.setStatus(TransactionStatus.SIGNED);
         tx.setSignatureVerified(true);
 
@@ -161,6 +278,7 @@ public class TransactionService {
         userKeyPairRepository.save(keyPair);
 
         Transaction signedTx = transactionRepository.save(tx);
+        publishStatus(signedTx);
 
         auditService.logAction(user.getId(), "SIGN_TRANSACTION", transactionId.toString(),
                 "Signed with KeyID " + keyId + " (SDitH Level " + keyPair.getSecurityLevel() + ")", "0.0.0.0");
@@ -197,12 +315,125 @@ public class TransactionService {
         return false;
     }
 
+    /**
+     * Whole history as full entities: the response of the original
+     * {@code GET /api/transactions}, kept for existing clients.
+     *
+     * @deprecated loads every row; use {@link #getTransactionPage}
+     */
+    @Deprecated
     public List<Transaction> getUserTransactions(User user) {
         List<Transaction> transactions = transactionRepository
                 .findByInitiatedByOrToAccountNumberOrderByInitiatedAtDesc(user, user.getAccountNumber());
         return transactions != null ? transactions : java.util.Collections.emptyList();
     }
 
+    /**
+     * One page of the user's history (sent and received), newest first.
+     *
+     * <p>
+     * The sent and received sides are read as two keyset queries of at most
+     * {@code limit} rows each and merged here, which keeps each query on its own
+     * composite index instead of an OR that PostgreSQL can only answer with a
+     * full sort.
+     */
+    public CursorPage<TransactionSummary> getTransactionPage(User user, String cursor, int limit) {
+        int size = Math.max(1, Math.min(limit, MAX_PAGE_SIZE));
+        LocalDateTime beforeTs = LocalDateTime.now().plusDays(1);
+        UUID beforeId = MAX_UUID;
+        if (cursor != null && !cursor.isBlank()) {
+            String[] key = CursorPage.decodeCursor(cursor);
+            beforeTs = LocalDateTime.parse(key[0]);
+            beforeId = UUID.fromString(key[1]);
+        }
+
+        String account = user.getAccountNumber();
+        PageRequest page = PageRequest.ofSize(size);
+        List<TransactionSummary> sent = transactionRepository.findSentPage(account, beforeTs, beforeId, page);
+        List<TransactionSummary> received = transactionRepository.findReceivedPage(account, beforeTs, beforeId, page);
+
+        // Same order as the queries: uuid comparison in the database is unsigned, like its hex string
+        Map<UUID, TransactionSummary> merged = new LinkedHashMap<>();
+        java.util.stream.Stream.concat(sent.stream(), received.stream())
+                .sorted(HISTORY_ORDER)
+                .forEach(s -> merged.putIfAbsent(s.getTransactionId(), s));
+        List<TransactionSummary> items = new ArrayList<>(merged.values());
+        if (items.size() > size) {
+            items = new ArrayList<>(items.subList(0, size));
+        }
+
+        String next = null;
+        if (items.size() == size) {
+            TransactionSummary last = items.get(items.size() - 1);
+            next = CursorPage.encodeCursor(last.getInitiatedAt(), last.getTransactionId());
+        }
+        return new CursorPage<>(items, next);
+    }
+
+    public TransactionDetail getTransactionDetail(@NonNull UUID transactionId, @NonNull User user) {
+        TransactionDetail detail = transactionRepository.findDetailById(transactionId)
+                .orElseThrow(() -> new RuntimeException("Transaction not found"));
+        if (!isParty(user, detail.getFromAccountNumber(), detail.getToAccountNumber())) {
+            throw new RuntimeException("Transaction not found");
+        }
+        detail.setSignatureSize(transactionRepository.findSignatureSizeById(transactionId));
+        return detail;
+    }
+
+    /**
+     * @return the raw SDitH signature, or null if the transaction is not signed
+     */
+    public byte[] getTransactionSignature(@NonNull UUID transactionId, @NonNull User user) {
+        getTransactionDetail(transactionId, user);
+        return transactionRepository.findSignatureById(transactionId).orElse(null);
+    }
+
+    // Status transition pushed to both parties' event streams once committed
+    private void publishStatus(Transaction tx) {
+        Map<String, Object> event = new HashMap<>();
+        event.put("transactionId", tx.getTransactionId());
+        event.put("status", tx.getStatus());
+        event.put("amount", tx.getAmount());
+        event.put("currency", tx.getCurrency());
+        event.put("fromAccountNumber", tx.getFromAccountNumber());
+        event.put("toAccountNumber", tx.getToAccountNumber());
+        eventHub.publishAfterCommit("transaction", event, tx.getFromAccountNumber(), tx.getToAccountNumber());
+    }
+
+    private boolean isParty(User user, String fromAccountNumber, String toAccountNumber) {
+        String account = user.getAccountNumber();
+        return account != null && (account.equals(fromAccountNumber) || account.equals(toAccountNumber));
+    }
+
+    /**
+     * Counts a status change in {@code talachibank.transactions.transitions}
+     * (tags {@code from}, {@code to}; {@code from=NEW} on creation). Inside a
+     * database transaction the count is taken on commit, so transitions that
+     * roll back are not reported.
+     */
+    void recordTransition(TransactionStatus from, TransactionStatus to) {
+        Counter counter = meterRegistry.counter("talachibank.transactions.transitions",
+                "from", from == null ? "NEW" : from.name(), "to", to.name());
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            counter.increment();
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                counter.increment();
+            }
+        });
+    }
+
+    /**
+     * The hash that gets SDitH-signed for {@code tx}. Shared with the load data
+     * generator so its synthetic signatures verify like real ones.
+     */
+    public String hashTransaction(Transaction tx) {
+        return computeHash(buildDataString(tx));
+    }
+
     private String buildDataString(Transaction tx) {
         return String.format("{id:%s,amount:%s,from:%s,to:%s}",
                 tx.getTransactionId(), tx.getAmount(), tx.getFromAccountNumber(), tx.getToAccountNumber());
@@ -0,0 +1,126 @@
+package com.talachibank.api.service;
+
+import com.talachibank.api.exception.ServiceSaturatedException;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Supplier;
+
+/**
+ * Serializes transfer work per account.
+ *
+ * <p>
+ * Each account that has work in flight gets a lane: a fair lock that callers
+ * take in arrival order and hold while their work runs, on their own
+ * (virtual) thread. Transfers into a hot account therefore queue up in memory
+ * instead of piling up on that account's row lock, while work for any other
+ * account proceeds in parallel and is never stuck behind it. Lanes exist only
+ * while they have callers.
+ *
+ * <p>
+ * Queues are bounded: beyond {@code talachibank.transfers.lane.max-queued-per-account}
+ * callers for one account, {@code max-queued} callers overall, or after
+ * waiting {@code wait-ms} for its turn, a call is shed with
+ * {@link ServiceSaturatedException} (503 + Retry-After).
+ */
+@Component
+public class TransferLaneExecutor {
+    private static final Logger logger = LoggerFactory.getLogger(TransferLaneExecutor.class);
+
+    private static final long RETRY_AFTER_SECONDS = 1;
+
+    private final int maxQueuedPerAccount;
+    private final int maxQueued;
+    private final long waitMs;
+
+    private final Map<String, Lane> lanes = new ConcurrentHashMap<>();
+    private final AtomicInteger queued = new AtomicInteger();
+
+    public TransferLaneExecutor(
+            @Value("${talachibank.transfers.lane.max-queued-per-account:256}") int maxQueuedPerAccount,
+            @Value("${talachibank.transfers.lane.max-queued:4096}") int maxQueued,
+            @Value("${talachibank.transfers.lane.wait-ms:10000}") long waitMs) {
+        this.maxQueuedPerAccount = Math.max(1, maxQueuedPerAccount);
+        this.maxQueued = Math.max(1, maxQueued);
+        this.waitMs = waitMs;
+    }
+
+    /**
+     * Runs {@code work} on the calling thread once every earlier caller for
+     * {@code accountNumber} has finished. Runtime exceptions thrown by the work
+     * are rethrown unchanged.
+     *
+     * @throws ServiceSaturatedException if the account's lane or the lanes
+     *                                   overall are full, or the turn did not
+     *                                   come within {@code wait-ms}
+     */
+    public <T> T execute(String accountNumber, Supplier<T> work) {
+        if (queued.incrementAndGet() > maxQueued) {
+            queued.decrementAndGet();
+            throw shed("Too many transfers in progress, please retry", accountNumber);
+        }
+        Lane lane;
+        try {
+            lane = join(accountNumber);
+        } catch (RuntimeException e) {
+            queued.decrementAndGet();
+            throw e;
+        }
+
+        try {
+            if (!lane.lock.tryLock(waitMs, TimeUnit.MILLISECONDS)) {
+                throw shed("Transfers to this account are backed up, please retry", accountNumber);
+            }
+            try {
+                return work.get();
+            } finally {
+                lane.lock.unlock();
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new RuntimeException("Interrupted while waiting for transfer lane", e);
+        } finally {
+            leave(accountNumber);
+            queued.decrementAndGet();
+        }
+    }
+
+    /** Callers currently running or waiting, across all accounts. */
+    public int queued() {
+        return queued.get();
+    }
+
+    // Lane membership is only changed inside compute, which is atomic per account
+    private Lane join(String accountNumber) {
+        return lanes.compute(accountNumber, (account, lane) -> {
+            if (lane == null) {
+                lane = new Lane();
+            } else if (lane.members >= maxQueuedPerAccount) {
+                throw shed("Transfers to this account are backed up, please retry", account);
+            }
+            lane.members++;
+            return lane;
+        });
+    }
+
+    private void leave(String accountNumber) {
+        lanes.computeIfPresent(accountNumber, (account, lane) -> --lane.members == 0 ? null : lane);
+    }
+
+    private static ServiceSaturatedException shed(String message, String accountNumber) {
+        logger.warn("Transfer shed for account {}: {}", accountNumber, message);
+        return new ServiceSaturatedException(message, RETRY_AFTER_SECONDS);
+    }
+
+    private static class Lane {
+        final ReentrantLock lock = new ReentrantLock(true);
+        int members;
+    }
+}
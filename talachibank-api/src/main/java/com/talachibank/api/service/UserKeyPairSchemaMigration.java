@@ -0,0 +1,79 @@
+package com.talachibank.api.service;
+
+import com.talachibank.api.model.UserKeyPair;
+import jakarta.annotation.PostConstruct;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.annotation.DependsOn;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.stream.Collectors;
+
+/**
+ * Keeps the check constraint on {@code user_key_pairs.status} in line with
+ * {@link UserKeyPair.KeyStatus}.
+ *
+ * <p>
+ * Hibernate creates the column with {@code check (status in (...))} listing
+ * the enum values of the time, and {@code ddl-auto=update} never rewrites an
+ * existing constraint, so a database created before a value was added (such
+ * as PENDING) rejects it. On start, any check on the status column that does
+ * not allow every current value is dropped and recreated; afterwards this is
+ * a no-op.
+ */
+@Component
+@DependsOn("entityManagerFactory")
+public class UserKeyPairSchemaMigration {
+    private static final Logger logger = LoggerFactory.getLogger(UserKeyPairSchemaMigration.class);
+
+    static final String TABLE = "user_key_pairs";
+    static final String STATUS_CHECK = "user_key_pairs_status_check";
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    @PostConstruct
+    public void init() {
+        transactionTemplate.executeWithoutResult(status -> migrate());
+    }
+
+    void migrate() {
+        List<String> values = Arrays.stream(UserKeyPair.KeyStatus.values()).map(Enum::name).toList();
+        List<Map<String, Object>> checks = jdbcTemplate.queryForList(
+                "select tc.constraint_name, cc.check_clause from information_schema.table_constraints tc "
+                        + "join information_schema.check_constraints cc "
+                        + "on cc.constraint_schema = tc.constraint_schema and cc.constraint_name = tc.constraint_name "
+                        + "where tc.table_schema = current_schema() and tc.table_name = ? "
+                        + "and tc.constraint_type = 'CHECK'",
+                TABLE);
+
+        boolean outdated = false;
+        for (Map<String, Object> check : checks) {
+            String clause = String.valueOf(check.get("check_clause"));
+            if (!clause.toLowerCase(Locale.ROOT).contains("status")
+                    || values.stream().allMatch(value -> clause.contains("'" + value + "'"))) {
+                continue;
+            }
+            String name = String.valueOf(check.get("constraint_name"));
+            jdbcTemplate.execute("alter table " + TABLE + " drop constraint \"" + name + "\"");
+            logger.info("Dropped outdated check {} on {}.status: {}", name, TABLE, clause);
+            outdated = true;
+        }
+        if (outdated) {
+            String allowed = values.stream().map(value -> "'" + value + "'").collect(Collectors.joining(", "));
+            jdbcTemplate.execute("alter table " + TABLE + " add constraint " + STATUS_CHECK
+                    + " check (status in (" + allowed + "))");
+            logger.info("{}.status now accepts {}", TABLE, values);
+        }
+    }
+}
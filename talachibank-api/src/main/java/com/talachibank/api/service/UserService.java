@@ -4,6 +4,7 @@ import com.talachibank.api.model.User;
 import com.talachibank.api.repository.UserRepository;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 
 @Service
 public class UserService {
@@ -17,16 +18,29 @@ public class UserService {
     @Autowired
     private AuditService auditService;
 
+    @Autowired
+    private LedgerService ledgerService;
+
+    @Autowired
+    private BalanceCache balanceCache;
+
     public User findByUsername(String username) {
         return userRepository.findByUsername(username).orElse(null);
     }
 
+    @Transactional
     public User rechargeBalance(User user, java.math.BigDecimal amount) {
         if (amount.compareTo(java.math.BigDecimal.ZERO) <= 0) {
             throw new RuntimeException("Recharge amount must be positive");
         }
-        user.setBalance(user.getBalance().add(amount));
-        User savedUser = userRepository.save(user);
+        // Single-statement credit: the caller's copy of the balance may be stale
+        if (userRepository.credit(user.getAccountNumber(), amount) == 0) {
+            throw new RuntimeException("User not found");
+        }
+        ledgerService.recordRecharge(user.getAccountNumber(), amount);
+        balanceCache.refreshAfterCommit(user.getAccountNumber());
+        User savedUser = userRepository.findById(user.getId())
+                .orElseThrow(() -> new RuntimeException("User not found"));
 
         auditService.logAction(user.getId(), "RECHARGE_BALANCE", "SUCCESS",
                 "Recharged account with " + amount, "0.0.0.0");
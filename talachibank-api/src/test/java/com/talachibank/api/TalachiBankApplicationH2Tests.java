@@ -0,0 +1,17 @@
+package com.talachibank.api;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+
+// Boots the full context on the in-memory database, so that a repository query
+// Hibernate cannot parse fails the build instead of the first startup
+@SpringBootTest
+@ActiveProfiles("h2")
+class TalachiBankApplicationH2Tests {
+
+	@Test
+	void contextLoads() {
+	}
+
+}
@@ -3,7 +3,8 @@ package com.talachibank.api;
 import org.junit.jupiter.api.Test;
 import org.springframework.boot.test.context.SpringBootTest;
 
-@SpringBootTest
+// Default profile: the key pool encryption key is required there
+@SpringBootTest(properties = "talachibank.keys.pool.encryption-key=dGVzdC1rZXktcG9vbC1lbmNyeXB0aW9uLWtleS0zMmI=")
 class SChatapiApplicationTests {
 
 	@Test
@@ -0,0 +1,277 @@
+package com.talachibank.api.controller;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.web.server.LocalServerPort;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Queue;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * End-to-end load test of the transfer flow over real HTTP.
+ *
+ * <p>
+ * Each virtual user registers, logs in, tops up, waits for its SDitH key to be
+ * provisioned and then runs create → sign → execute → verify
+ * {@code loadtest.iterations} times against the embedded server, all users
+ * concurrently on virtual threads. Throughput and a latency histogram are
+ * printed per endpoint. The run fails if the p99 of any transfer-flow
+ * endpoint exceeds {@code loadtest.max-p99-ms} (compared at histogram bucket
+ * resolution, i.e. the next power of two in µs, capped at the observed
+ * maximum) or fewer than {@code loadtest.min-transfers-per-second} transfers
+ * complete per second.
+ * Excluded from the default build, run with
+ * {@code mvn test -Ploadtest -Dloadtest.users=64 -Dloadtest.iterations=20}.
+ */
+@Tag("loadtest")
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT, properties = "server.servlet.context-path=")
+@ActiveProfiles("h2")
+class TransactionFlowLoadTest {
+
+	private static final int USERS = Integer.getInteger("loadtest.users", 16);
+	private static final int ITERATIONS = Integer.getInteger("loadtest.iterations", 10);
+	private static final long KEY_WAIT_MS = Long.getLong("loadtest.key-wait-ms", 120_000L);
+	private static final long MAX_P99_MS = Long.getLong("loadtest.max-p99-ms", 30_000L);
+	private static final double MIN_TRANSFERS_PER_SECOND = Double
+			.parseDouble(System.getProperty("loadtest.min-transfers-per-second", "0.5"));
+	private static final List<String> FLOW_ENDPOINTS = List.of("create", "sign", "execute", "verify");
+	private static final String PASSWORD = "LoadTest123!";
+
+	// Seeded admin account: every transfer goes there, a deliberately hot recipient
+	private static final String RECIPIENT = "TAL-0000000001";
+
+	@LocalServerPort
+	private int port;
+
+	@Autowired
+	private ObjectMapper objectMapper;
+
+	private final ExecutorService httpExecutor = Executors.newVirtualThreadPerTaskExecutor();
+	private final HttpClient http = HttpClient.newBuilder()
+			.executor(httpExecutor)
+			.connectTimeout(Duration.ofSeconds(10))
+			.build();
+
+	private final Map<String, Histogram> histograms = new ConcurrentHashMap<>();
+	private final AtomicLong shed = new AtomicLong();
+	private final AtomicLong completed = new AtomicLong();
+	private final Queue<String> errors = new ConcurrentLinkedQueue<>();
+
+	@AfterEach
+	void closeClient() {
+		http.close();
+		httpExecutor.close();
+	}
+
+	@Test
+	void transferFlowHoldsUpUnderConcurrentUsers() throws Exception {
+		String run = Long.toString(System.currentTimeMillis() % 1_000_000_000L, 36);
+		long started = System.nanoTime();
+
+		try (ExecutorService users = Executors.newVirtualThreadPerTaskExecutor()) {
+			List<Future<?>> futures = new ArrayList<>();
+			for (int u = 0; u < USERS; u++) {
+				String username = "lt" + run + "_" + u;
+				futures.add(users.submit(() -> {
+					try {
+						runUser(username);
+					} catch (Exception e) {
+						errors.add(username + ": " + e.getMessage());
+					}
+				}));
+			}
+			for (Future<?> future : futures) {
+				future.get();
+			}
+		}
+
+		long elapsed = System.nanoTime() - started;
+		report(elapsed);
+		assertTrue(errors.isEmpty(), () -> errors.size() + " users failed, first: " + errors.peek());
+		assertEquals((long) USERS * ITERATIONS, completed.get());
+
+		for (String endpoint : FLOW_ENDPOINTS) {
+			double p99 = histograms.get(endpoint).percentileMillis(0.99);
+			assertTrue(p99 <= MAX_P99_MS, () -> endpoint + " p99 " + p99 + " ms > loadtest.max-p99-ms=" + MAX_P99_MS);
+		}
+		double transfersPerSecond = completed.get() / (elapsed / 1e9);
+		assertTrue(transfersPerSecond >= MIN_TRANSFERS_PER_SECOND, () -> String.format(
+				"%.2f transfers/s < loadtest.min-transfers-per-second=%s", transfersPerSecond,
+				MIN_TRANSFERS_PER_SECOND));
+	}
+
+	private void runUser(String username) throws Exception {
+		call("register", post("/api/auth/register", null, Map.of(
+				"username", username, "email", username + "@load.test", "password", PASSWORD)));
+		String token = call("login", post("/api/auth/login", null, Map.of(
+				"username", username, "password", PASSWORD))).get("accessToken").asText();
+		call("recharge", post("/api/user/recharge", token, Map.of("amount", ITERATIONS * 10)));
+		long keyId = awaitActiveKey(token);
+
+		for (int i = 0; i < ITERATIONS; i++) {
+			String id = call("create", post("/api/transactions", token, Map.of(
+					"transactionType", "INTERNAL_TRANSFER",
+					"toAccountNumber", RECIPIENT,
+					"amount", "1.00",
+					"currency", "EUR",
+					"description", "load test " + i))).get("transactionId").asText();
+			call("sign", post("/api/transactions/" + id + "/sign?keyId=" + keyId, token, null));
+			call("execute", post("/api/transactions/" + id + "/execute", token, null));
+			JsonNode verified = call("verify", get("/api/transactions/" + id + "/verify", token));
+			if (!verified.asBoolean()) {
+				throw new IllegalStateException("signature of " + id + " did not verify");
+			}
+			completed.incrementAndGet();
+		}
+	}
+
+	// Registration provisions the key from the pool or asynchronously
+	private long awaitActiveKey(String token) throws Exception {
+		long deadline = System.currentTimeMillis() + KEY_WAIT_MS;
+		while (System.currentTimeMillis() < deadline) {
+			for (JsonNode key : call("keys", get("/api/user/keys", token))) {
+				if ("ACTIVE".equals(key.path("status").asText())) {
+					return key.get("id").asLong();
+				}
+			}
+			Thread.sleep(200);
+		}
+		throw new IllegalStateException("no ACTIVE key after " + KEY_WAIT_MS + " ms");
+	}
+
+	/**
+	 * Sends the request, timing every attempt under {@code endpoint}. A 503
+	 * (crypto queue full) is retried after its Retry-After, like a client would.
+	 */
+	private JsonNode call(String endpoint, HttpRequest request) throws Exception {
+		for (;;) {
+			long start = System.nanoTime();
+			HttpResponse<String> response = http.send(request, HttpResponse.BodyHandlers.ofString());
+			histograms.computeIfAbsent(endpoint, k -> new Histogram()).record(System.nanoTime() - start);
+
+			if (response.statusCode() == 503) {
+				shed.incrementAndGet();
+				long retryAfter = response.headers().firstValueAsLong("Retry-After").orElse(1);
+				Thread.sleep(retryAfter * 1000);
+				continue;
+			}
+			if (response.statusCode() >= 300) {
+				throw new IllegalStateException(endpoint + " -> " + response.statusCode() + " " + response.body());
+			}
+			return response.body().isEmpty() ? objectMapper.nullNode() : objectMapper.readTree(response.body());
+		}
+	}
+
+	private HttpRequest post(String path, String token, Object body) throws Exception {
+		HttpRequest.Builder builder = request(path, token).header("Content-Type", "application/json");
+		return builder.POST(body == null
+				? HttpRequest.BodyPublishers.noBody()
+				: HttpRequest.BodyPublishers.ofString(objectMapper.writeValueAsString(body))).build();
+	}
+
+	private HttpRequest get(String path, String token) {
+		return request(path, token).GET().build();
+	}
+
+	private HttpRequest.Builder request(String path, String token) {
+		HttpRequest.Builder builder = HttpRequest.newBuilder(URI.create("http://localhost:" + port + path))
+				.timeout(Duration.ofSeconds(60));
+		if (token != null) {
+			builder.header("Authorization", "Bearer " + token);
+		}
+		return builder;
+	}
+
+	private void report(long elapsedNanos) {
+		double seconds = elapsedNanos / 1e9;
+		StringBuilder out = new StringBuilder();
+		out.append(String.format("%n=== Load test: %d users x %d transfers in %.1f s, %d shed (503) ===%n",
+				USERS, ITERATIONS, seconds, shed.get()));
+		out.append(String.format("%-9s %7s %8s %9s %9s %9s %9s %9s%n",
+				"endpoint", "count", "req/s", "mean ms", "p50 ms", "p90 ms", "p99 ms", "max ms"));
+		new TreeMap<>(histograms).forEach((endpoint, h) -> out.append(String.format(
+				"%-9s %7d %8.1f %9.2f %9.2f %9.2f %9.2f %9.2f%n", endpoint, h.count.get(), h.count.get() / seconds,
+				h.meanMillis(), h.percentileMillis(0.50), h.percentileMillis(0.90), h.percentileMillis(0.99),
+				h.max.get() / 1e6)));
+		new TreeMap<>(histograms).forEach((endpoint, h) -> out.append(endpoint).append('\n').append(h.bars()));
+		System.out.println(out);
+	}
+
+	/**
+	 * Lock-free latency histogram with power-of-two microsecond buckets:
+	 * bucket {@code i} counts samples in {@code [2^i, 2^(i+1))} µs, so
+	 * percentiles are reported as the upper bound of their bucket, capped at
+ * the largest sample recorded.
+	 */
+	private static class Histogram {
+		private static final int BUCKETS = 40;
+
+		private final AtomicLongArray buckets = new AtomicLongArray(BUCKETS);
+		private final AtomicLong count = new AtomicLong();
+		private final AtomicLong total = new AtomicLong();
+		private final AtomicLong max = new AtomicLong();
+
+		void record(long nanos) {
+			long micros = Math.max(1, nanos / 1000);
+			buckets.incrementAndGet(Math.min(BUCKETS - 1, 63 - Long.numberOfLeadingZeros(micros)));
+			count.incrementAndGet();
+			total.addAndGet(nanos);
+			max.accumulateAndGet(nanos, Math::max);
+		}
+
+		double meanMillis() {
+			return count.get() == 0 ? 0 : total.get() / 1e6 / count.get();
+		}
+
+		double percentileMillis(double percentile) {
+			long rank = (long) Math.ceil(percentile * count.get());
+			long seen = 0;
+			for (int i = 0; i < BUCKETS; i++) {
+				seen += buckets.get(i);
+				if (seen >= rank) {
+					return Math.min((1L << (i + 1)) / 1000.0, max.get() / 1e6);
+				}
+			}
+			return max.get() / 1e6;
+		}
+
+		String bars() {
+			StringBuilder out = new StringBuilder();
+			long peak = 1;
+			for (int i = 0; i < BUCKETS; i++) {
+				peak = Math.max(peak, buckets.get(i));
+			}
+			for (int i = 0; i < BUCKETS; i++) {
+				long n = buckets.get(i);
+				if (n > 0) {
+					out.append(String.format("  < %10.3f ms %7d %s%n", (1L << (i + 1)) / 1000.0, n,
+							"#".repeat((int) Math.max(1, n * 50 / peak))));
+				}
+			}
+			return out.toString();
+		}
+	}
+}
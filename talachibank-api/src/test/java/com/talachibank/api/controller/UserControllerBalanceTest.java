@@ -0,0 +1,82 @@
+package com.talachibank.api.controller;
+
+import com.talachibank.api.model.User;
+import com.talachibank.api.repository.UserRepository;
+import com.talachibank.api.service.BalanceCache;
+import com.talachibank.api.service.UserDetailsImpl;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.HttpHeaders;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.math.BigDecimal;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.springframework.security.test.web.servlet.request.SecurityMockMvcRequestPostProcessors.user;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
+
+@SpringBootTest
+@AutoConfigureMockMvc
+@ActiveProfiles("h2")
+class UserControllerBalanceTest {
+
+	@Autowired
+	private MockMvc mockMvc;
+
+	@Autowired
+	private UserRepository userRepository;
+
+	@Autowired
+	private BalanceCache balanceCache;
+
+	@Autowired
+	private TransactionTemplate transactionTemplate;
+
+	@Test
+	void unchangedBalanceIsNotModified() throws Exception {
+		User account = newAccount(new BigDecimal("42.00"));
+		UserDetailsImpl principal = principal(account);
+
+		String etag = mockMvc.perform(get("/api/user/balance").with(user(principal)))
+				.andExpect(status().isOk())
+				.andExpect(jsonPath("$.balance").value(42.00))
+				.andReturn().getResponse().getHeader(HttpHeaders.ETAG);
+		assertNotNull(etag);
+
+		mockMvc.perform(get("/api/user/balance").with(user(principal)).header(HttpHeaders.IF_NONE_MATCH, etag))
+				.andExpect(status().isNotModified());
+
+		// A committed money movement refreshes the cache, so the old tag no longer matches
+		transactionTemplate.executeWithoutResult(status -> {
+			User stored = userRepository.findById(account.getId()).orElseThrow();
+			stored.setBalance(new BigDecimal("50.00"));
+			userRepository.save(stored);
+			balanceCache.refreshAfterCommit(account.getAccountNumber());
+		});
+		String changed = mockMvc.perform(get("/api/user/balance").with(user(principal))
+				.header(HttpHeaders.IF_NONE_MATCH, etag))
+				.andExpect(status().isOk())
+				.andExpect(jsonPath("$.balance").value(50.00))
+				.andReturn().getResponse().getHeader(HttpHeaders.ETAG);
+		assertNotEquals(etag, changed);
+	}
+
+	private UserDetailsImpl principal(User account) {
+		return new UserDetailsImpl(account.getId(), account.getUsername(), account.getEmail(), "x",
+				account.getBalance(), account.getAccountNumber(), List.of());
+	}
+
+	private User newAccount(BigDecimal balance) {
+		String tag = Long.toString(System.nanoTime() % 1_000_000_000L);
+		User user = new User("etag" + tag, "etag" + tag + "@test.local", "x");
+		user.setAccountNumber("TSE-" + tag);
+		user.setBalance(balance);
+		return userRepository.save(user);
+	}
+}
@@ -0,0 +1,80 @@
+package com.talachibank.api.seeder;
+
+import com.talachibank.api.service.LedgerService;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@SpringBootTest(properties = {
+		"talachibank.loadgen.users=12",
+		"talachibank.loadgen.transactions=150",
+		"talachibank.loadgen.batch-size=40",
+		// Low enough that the hot accounts run dry
+		"talachibank.loadgen.opening-balance=100.00" })
+@ActiveProfiles({ "h2", "loadgen" })
+class LoadDataGeneratorTest {
+
+	@Autowired
+	private JdbcTemplate jdbcTemplate;
+
+	@Autowired
+	private LedgerService ledgerService;
+
+	@Test
+	void generatedBalancesMatchTheLedger() {
+		List<Map<String, Object>> accounts = jdbcTemplate.queryForList(
+				"select account_number, balance from users where account_number like 'LDG-%'");
+		assertEquals(12, accounts.size());
+
+		LocalDateTime now = LocalDateTime.now();
+		BigDecimal total = BigDecimal.ZERO;
+		for (Map<String, Object> account : accounts) {
+			String accountNumber = (String) account.get("account_number");
+			BigDecimal balance = (BigDecimal) account.get("balance");
+			assertEquals(0, balance.compareTo(ledgerService.balanceAt(accountNumber, now)), accountNumber);
+			total = total.add(balance);
+		}
+		// Transfers only move money between generated accounts
+		assertEquals(0, new BigDecimal("1200.00").compareTo(total));
+
+		Integer executed = jdbcTemplate.queryForObject(
+				"select count(*) from transactions t where t.status = 'EXECUTED' and t.from_account_number like 'LDG-%'",
+				Integer.class);
+		Integer postings = jdbcTemplate.queryForObject(
+				"select count(*) from ledger_entries where reference = 'TRANSFER' and account_number like 'LDG-%'",
+				Integer.class);
+		assertTrue(executed > 0);
+		assertEquals(executed * 2, postings);
+	}
+
+	@Test
+	void noAccountIsEverOverdrawn() {
+		Map<String, BigDecimal> running = new HashMap<>();
+		jdbcTemplate.query("select account_number, direction, amount from ledger_entries "
+				+ "where account_number like 'LDG-%' order by created_at, direction", rs -> {
+					BigDecimal amount = rs.getBigDecimal(3);
+					BigDecimal balance = running.merge(rs.getString(1),
+							"DEBIT".equals(rs.getString(2)) ? amount.negate() : amount, BigDecimal::add);
+					assertTrue(balance.signum() >= 0, rs.getString(1) + " went negative");
+				});
+
+		Integer failed = jdbcTemplate.queryForObject(
+				"select count(*) from transactions t where t.status = 'FAILED' and t.from_account_number like 'LDG-%'",
+				Integer.class);
+		assertTrue(failed > 0, "expected some transfers the sender could not cover");
+		Integer failedPostings = jdbcTemplate.queryForObject("select count(*) from ledger_entries l "
+				+ "join transactions t on t.transaction_id = l.transaction_id where t.status = 'FAILED'",
+				Integer.class);
+		assertEquals(0, failedPostings);
+	}
+}
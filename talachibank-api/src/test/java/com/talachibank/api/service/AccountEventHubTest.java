@@ -0,0 +1,140 @@
+package com.talachibank.api.service;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.io.IOException;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.function.BooleanSupplier;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class AccountEventHubTest {
+
+	private static final int QUEUE_CAPACITY = 4;
+
+	private AccountEventHub hub;
+
+	@BeforeEach
+	void setUp() {
+		hub = new AccountEventHub(QUEUE_CAPACITY);
+		ReflectionTestUtils.setField(hub, "timeoutMs", 60_000L);
+		ReflectionTestUtils.setField(hub, "maxPerAccount", 5);
+	}
+
+	@Test
+	void eventsReachEveryStreamInOrder() throws InterruptedException {
+		RecordingEmitter first = new RecordingEmitter(null);
+		RecordingEmitter second = new RecordingEmitter(null);
+		hub.subscribe("TAL-1", first);
+		hub.subscribe("TAL-1", second);
+
+		for (int i = 0; i < 3; i++) {
+			hub.publish("TAL-1", "balance", Map.of("n", i));
+		}
+		hub.publish("TAL-2", "balance", Map.of("n", 99));
+
+		for (RecordingEmitter emitter : List.of(first, second)) {
+			await(() -> emitter.sent.size() == 4);
+			assertTrue(emitter.sent.get(0).contains(":connected"));
+			for (int i = 0; i < 3; i++) {
+				assertTrue(emitter.sent.get(i + 1).contains("n=" + i), emitter.sent.get(i + 1));
+			}
+		}
+		assertEquals(2, hub.connectionCount());
+	}
+
+	@Test
+	void streamThatFallsBehindIsClosedWithoutHoldingUpOthers() throws InterruptedException {
+		CountDownLatch stuck = new CountDownLatch(1);
+		RecordingEmitter slow = new RecordingEmitter(stuck);
+		RecordingEmitter fast = new RecordingEmitter(null);
+		hub.subscribe("TAL-1", slow);
+		hub.subscribe("TAL-1", fast);
+
+		// The fast client keeps up; the slow one is stuck on its first write
+		for (int i = 0; i < 10; i++) {
+			long start = System.nanoTime();
+			hub.publish("TAL-1", "transaction", Map.of("n", i));
+			hub.heartbeat();
+			assertTrue(TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start) < 500, "publishers never block");
+			int expected = 3 + 2 * i;
+			await(() -> fast.sent.size() == expected);
+		}
+
+		await(() -> hub.connectionCount() == 1);
+		await(() -> slow.completed);
+		stuck.countDown();
+		assertTrue(slow.sent.size() <= 1 + QUEUE_CAPACITY);
+	}
+
+	@Test
+	void heartbeatIsQueuedLikeEvents() throws InterruptedException {
+		RecordingEmitter emitter = new RecordingEmitter(null);
+		hub.subscribe("TAL-1", emitter);
+
+		hub.heartbeat();
+
+		await(() -> emitter.sent.size() == 2);
+		assertTrue(emitter.sent.get(1).contains(":ping"));
+	}
+
+	@Test
+	void brokenStreamIsDropped() throws InterruptedException {
+		RecordingEmitter broken = new RecordingEmitter(null);
+		broken.failing = true;
+		hub.subscribe("TAL-1", broken);
+
+		await(() -> hub.connectionCount() == 0);
+		hub.publish("TAL-1", "balance", Map.of("n", 1));
+		assertTrue(broken.sent.isEmpty());
+	}
+
+	private static void await(BooleanSupplier condition) throws InterruptedException {
+		long deadline = System.currentTimeMillis() + 5_000;
+		while (!condition.getAsBoolean() && System.currentTimeMillis() < deadline) {
+			Thread.sleep(10);
+		}
+		assertTrue(condition.getAsBoolean());
+	}
+
+	// Records what would be written; optionally blocks on the first send like a client that stopped reading
+	private static class RecordingEmitter extends SseEmitter {
+		final List<String> sent = new CopyOnWriteArrayList<>();
+		final CountDownLatch block;
+		volatile boolean failing;
+		volatile boolean completed;
+
+		RecordingEmitter(CountDownLatch block) {
+			this.block = block;
+		}
+
+		@Override
+		public void send(SseEventBuilder builder) throws IOException {
+			if (failing) {
+				throw new IOException("Broken pipe");
+			}
+			StringBuilder text = new StringBuilder();
+			builder.build().forEach(part -> text.append(part.getData()));
+			sent.add(text.toString());
+			if (block != null) {
+				try {
+					block.await();
+				} catch (InterruptedException e) {
+					Thread.currentThread().interrupt();
+				}
+			}
+		}
+
+		@Override
+		public void complete() {
+			completed = true;
+		}
+	}
+}
@@ -0,0 +1,104 @@
+package com.talachibank.api.service;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.dao.DataAccessResourceFailureException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.doThrow;
+import static org.mockito.Mockito.mock;
+
+@SpringBootTest
+@ActiveProfiles("h2")
+class AsyncAuditWriterTest {
+
+	@Autowired
+	private AuditService auditService;
+
+	@Autowired
+	private AsyncAuditWriter asyncAuditWriter;
+
+	@Autowired
+	private AuditOutboxRelay auditOutboxRelay;
+
+	@Autowired
+	private JdbcTemplate jdbcTemplate;
+
+	@Autowired
+	private MeterRegistry meterRegistry;
+
+	@Test
+	void eventsOutsideATransactionAreBatchedIntoTheOutbox() throws InterruptedException {
+		String tag = UUID.randomUUID().toString();
+		for (int i = 0; i < 3; i++) {
+			auditService.logAction(1L, "TEST_EVENT", tag, "event " + i, "127.0.0.1");
+		}
+		asyncAuditWriter.flush();
+
+		assertEquals(0, asyncAuditWriter.getQueueDepth());
+		awaitAuditLogs(tag, 3);
+	}
+
+	@Test
+	void fullQueueMakesTheCallerWriteItsOwnEvent() throws InterruptedException {
+		String tag = UUID.randomUUID().toString();
+		double before = meterRegistry.counter("talachibank.audit.backpressure").count();
+		ReflectionTestUtils.setField(asyncAuditWriter, "queueCapacity", 0);
+		try {
+			auditService.logAction(1L, "TEST_EVENT", tag, "synchronous", "127.0.0.1");
+		} finally {
+			ReflectionTestUtils.setField(asyncAuditWriter, "queueCapacity", 10000);
+		}
+
+		assertEquals(before + 1, meterRegistry.counter("talachibank.audit.backpressure").count());
+		assertEquals(0, asyncAuditWriter.getQueueDepth());
+		awaitAuditLogs(tag, 1);
+	}
+
+	@Test
+	void rejectedBatchIsSpooledThenReplayed() throws Exception {
+		String tag = UUID.randomUUID().toString();
+		Path spool = Path.of((String) ReflectionTestUtils.getField(asyncAuditWriter, "spoolFile"));
+		JdbcTemplate failing = mock(JdbcTemplate.class);
+		doThrow(new DataAccessResourceFailureException("database down")).when(failing)
+				.batchUpdate(anyString(), anyList(), anyInt(), any());
+
+		ReflectionTestUtils.setField(asyncAuditWriter, "jdbcTemplate", failing);
+		try {
+			auditService.logAction(1L, "TEST_EVENT", tag, "spooled", "127.0.0.1");
+			asyncAuditWriter.flush();
+			assertTrue(Files.readString(spool).contains(tag));
+		} finally {
+			ReflectionTestUtils.setField(asyncAuditWriter, "jdbcTemplate", jdbcTemplate);
+		}
+
+		asyncAuditWriter.flush();
+		assertFalse(Files.exists(spool));
+		awaitAuditLogs(tag, 1);
+	}
+
+	// Relays here rather than waiting for the shared scheduler thread
+	private void awaitAuditLogs(String transactionId, int expected) throws InterruptedException {
+		long deadline = System.currentTimeMillis() + 10_000;
+		int found;
+		do {
+			auditOutboxRelay.relay();
+			found = jdbcTemplate.queryForObject("select count(*) from audit_logs where transaction_id = ?",
+					Integer.class, transactionId);
+			if (found < expected) {
+				Thread.sleep(50);
+			}
+		} while (found < expected && System.currentTimeMillis() < deadline);
+		assertEquals(expected, found);
+	}
+}
@@ -0,0 +1,45 @@
+package com.talachibank.api.service;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.time.YearMonth;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+// Partitioning needs PostgreSQL; on H2 the manager must leave the plain table alone
+@SpringBootTest
+@ActiveProfiles("h2")
+class AuditPartitionManagerTest {
+
+	@Autowired
+	private AuditPartitionManager auditPartitionManager;
+
+	@Autowired
+	private JdbcTemplate jdbcTemplate;
+
+	@Test
+	void isANoOpOutsidePostgres() {
+		assertDoesNotThrow(auditPartitionManager::init);
+		assertDoesNotThrow(auditPartitionManager::ensurePartitions);
+
+		assertEquals(1, countTables("audit_logs"));
+		assertEquals(0, countTables(AuditPartitionManager.LEGACY_PARTITION));
+		assertEquals(0, countTables(AuditPartitionManager.DEFAULT_PARTITION));
+		assertEquals(0, countTables(AuditPartitionManager.partitionName(YearMonth.now())));
+	}
+
+	@Test
+	void partitionNamesSortByMonth() {
+		assertEquals("audit_logs_y2026m01", AuditPartitionManager.partitionName(YearMonth.of(2026, 1)));
+		assertEquals("audit_logs_y2026m12", AuditPartitionManager.partitionName(YearMonth.of(2026, 12)));
+	}
+
+	private int countTables(String name) {
+		return jdbcTemplate.queryForObject(
+				"select count(*) from information_schema.tables where table_name = ?", Integer.class, name);
+	}
+}
@@ -0,0 +1,34 @@
+package com.talachibank.api.service;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.math.BigDecimal;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@SpringBootTest
+@ActiveProfiles("h2")
+class BalanceCacheTest {
+
+	@Autowired
+	private BalanceCache balanceCache;
+
+	@Test
+	void localEntriesAreBounded() {
+		int max = (int) ReflectionTestUtils.getField(balanceCache, "localMaxEntries");
+		ReflectionTestUtils.setField(balanceCache, "localMaxEntries", 20);
+		try {
+			for (int i = 0; i < 100; i++) {
+				balanceCache.put("TSB-" + i, BigDecimal.valueOf(i));
+				assertTrue(balanceCache.localSize() <= 20, "size " + balanceCache.localSize());
+			}
+			assertEquals(BigDecimal.valueOf(99), balanceCache.get("TSB-99"), "latest entry kept");
+		} finally {
+			ReflectionTestUtils.setField(balanceCache, "localMaxEntries", max);
+		}
+	}
+}
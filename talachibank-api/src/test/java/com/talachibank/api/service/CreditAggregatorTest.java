@@ -0,0 +1,151 @@
+package com.talachibank.api.service;
+
+import com.talachibank.api.model.Transaction;
+import com.talachibank.api.model.TransactionStatus;
+import com.talachibank.api.model.TransactionType;
+import com.talachibank.api.model.User;
+import com.talachibank.api.repository.TransactionRepository;
+import com.talachibank.api.repository.UserRepository;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+// Batches of 3 so that a single run has to loop; the scheduled run is pushed out of the way
+@SpringBootTest(properties = {
+		"talachibank.transfers.credit-batching.enabled=true",
+		"talachibank.transfers.credit-batching.max-batch=3",
+		"talachibank.transfers.credit-batching.window-ms=3600000" })
+@ActiveProfiles("h2")
+class CreditAggregatorTest {
+
+	private static final AtomicInteger SEQ = new AtomicInteger();
+
+	@Autowired
+	private CreditAggregator creditAggregator;
+
+	@Autowired
+	private TransactionService transactionService;
+
+	@Autowired
+	private TransactionRepository transactionRepository;
+
+	@Autowired
+	private UserRepository userRepository;
+
+	@Autowired
+	private LedgerService ledgerService;
+
+	@Test
+	void creditsAreDeferredThenPostedAcrossSeveralBatches() {
+		User sender = newAccount(new BigDecimal("100.00"));
+		User recipient = newAccount(BigDecimal.ZERO);
+
+		List<UUID> ids = new ArrayList<>();
+		for (int i = 0; i < 7; i++) {
+			UUID id = signedTransfer(sender, recipient, new BigDecimal("2.00")).getTransactionId();
+			transactionService.executeTransaction(id, sender);
+			ids.add(id);
+		}
+		assertEquals(0, new BigDecimal("86.00").compareTo(balanceOf(sender)));
+		assertEquals(0, BigDecimal.ZERO.compareTo(balanceOf(recipient)), "credit is deferred");
+		assertEquals(0, BigDecimal.ZERO
+				.compareTo(ledgerService.balanceAt(recipient.getAccountNumber(), LocalDateTime.now())),
+				"the ledger credit is deferred too");
+
+		creditAggregator.postPendingCredits();
+
+		assertEquals(0, new BigDecimal("14.00").compareTo(balanceOf(recipient)));
+		for (UUID id : ids) {
+			Transaction tx = transactionRepository.findById(id).orElseThrow();
+			assertEquals(TransactionStatus.EXECUTED, tx.getStatus());
+			assertTrue(tx.getCreditPosted());
+		}
+		assertEquals(0, balanceOf(recipient)
+				.compareTo(ledgerService.balanceAt(recipient.getAccountNumber(), LocalDateTime.now())));
+	}
+
+	@Test
+	void creditsToAClosedAccountAreRefundedAndDoNotStarveOthers() {
+		User orphanSender = newAccount(new BigDecimal("50.00"));
+		User closed = newAccount(BigDecimal.ZERO);
+		User sender = newAccount(new BigDecimal("50.00"));
+		User recipient = newAccount(BigDecimal.ZERO);
+
+		// More unpostable rows than a batch, queued ahead of the valid ones
+		List<UUID> orphaned = new ArrayList<>();
+		for (int i = 0; i < 5; i++) {
+			UUID id = signedTransfer(orphanSender, closed, BigDecimal.ONE).getTransactionId();
+			transactionService.executeTransaction(id, orphanSender);
+			orphaned.add(id);
+		}
+		userRepository.delete(closed);
+		List<UUID> valid = new ArrayList<>();
+		for (int i = 0; i < 4; i++) {
+			UUID id = signedTransfer(sender, recipient, BigDecimal.ONE).getTransactionId();
+			transactionService.executeTransaction(id, sender);
+			valid.add(id);
+		}
+		assertEquals(0, new BigDecimal("45.00").compareTo(balanceOf(orphanSender)));
+
+		creditAggregator.postPendingCredits();
+
+		assertEquals(0, new BigDecimal("50.00").compareTo(balanceOf(orphanSender)), "funds returned");
+		assertEquals(0, new BigDecimal("4.00").compareTo(balanceOf(recipient)));
+		for (UUID id : orphaned) {
+			assertEquals(TransactionStatus.FAILED, transactionRepository.findById(id).orElseThrow().getStatus());
+		}
+		for (UUID id : valid) {
+			assertTrue(transactionRepository.findById(id).orElseThrow().getCreditPosted());
+		}
+		// Debits and refunds cancel out on the sender's ledger
+		assertEquals(0, new BigDecimal("50.00")
+				.compareTo(ledgerService.balanceAt(orphanSender.getAccountNumber(), LocalDateTime.now())));
+		// The closed account never received the credit, in the ledger either
+		assertEquals(0, BigDecimal.ZERO
+				.compareTo(ledgerService.balanceAt(closed.getAccountNumber(), LocalDateTime.now())));
+
+		// Nothing is left to pick up again
+		creditAggregator.postPendingCredits();
+		assertEquals(0, new BigDecimal("50.00").compareTo(balanceOf(orphanSender)));
+	}
+
+	private User newAccount(BigDecimal balance) {
+		int n = SEQ.incrementAndGet();
+		String tag = Long.toString(System.nanoTime() % 1_000_000L) + n;
+		User user = new User("cred" + tag, "cred" + tag + "@test.local", "x");
+		user.setAccountNumber("TSC-" + tag);
+		user.setBalance(balance);
+		userRepository.save(user);
+		ledgerService.recordOpeningBalance(user.getAccountNumber(), balance);
+		return user;
+	}
+
+	private Transaction signedTransfer(User from, User to, BigDecimal amount) {
+		Transaction tx = Transaction.builder()
+				.transactionType(TransactionType.INTERNAL_TRANSFER)
+				.fromAccountNumber(from.getAccountNumber())
+				.toAccountNumber(to.getAccountNumber())
+				.amount(amount)
+				.currency("EUR")
+				.initiatedBy(from)
+				.initiatedAt(LocalDateTime.now())
+				.status(TransactionStatus.SIGNED)
+				.signatureVerified(true)
+				.build();
+		return transactionRepository.save(tx);
+	}
+
+	private BigDecimal balanceOf(User user) {
+		return userRepository.findById(user.getId()).orElseThrow().getBalance();
+	}
+}
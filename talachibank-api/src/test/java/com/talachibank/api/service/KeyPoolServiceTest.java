@@ -0,0 +1,114 @@
+package com.talachibank.api.service;
+
+import com.talachibank.api.model.PooledKeyPair;
+import com.talachibank.api.model.UserKeyPair;
+import com.talachibank.api.repository.KeyPoolRepository;
+import com.talachibank.signature.core.SDitHParameters;
+import com.talachibank.signature.core.SDitHSigner;
+import com.talachibank.signature.core.SDithPrivateKey;
+import com.talachibank.signature.core.SDithPublicKey;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.mock.env.MockEnvironment;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Comparator;
+import java.util.Map;
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+// Works on level L3 only: the scheduled refill of every test context only tops up L1
+@SpringBootTest
+@ActiveProfiles("h2")
+class KeyPoolServiceTest {
+
+	private static final int LEVEL = SDitHParameters.LEVEL_L3;
+
+	@Autowired
+	private KeyPoolService keyPoolService;
+
+	@Autowired
+	private KeyPoolRepository keyPoolRepository;
+
+	@Autowired
+	private PlatformTransactionManager transactionManager;
+
+	@BeforeEach
+	void fillPool() {
+		ReflectionTestUtils.setField(keyPoolService, "targetDepth", Map.of(LEVEL, 3));
+		keyPoolService.refill();
+		ReflectionTestUtils.setField(keyPoolService, "targetDepth", Map.of());
+		assertEquals(3, keyPoolRepository.countBySecurityLevel(LEVEL));
+	}
+
+	@Test
+	void takenKeyIsDecryptedAndSigns() {
+		UserKeyPair key = keyPoolService.take(LEVEL).orElseThrow();
+
+		assertEquals(2, keyPoolRepository.countBySecurityLevel(LEVEL));
+		assertEquals(UserKeyPair.KeyStatus.ACTIVE, key.getStatus());
+		assertEquals(LEVEL, key.getSecurityLevel());
+
+		SDitHParameters params = new SDitHParameters(LEVEL);
+		SDitHSigner signer = new SDitHSigner();
+		byte[] message = "pooled key".getBytes(StandardCharsets.UTF_8);
+		byte[] signature = signer.sign(message, new SDithPrivateKey(key.getPrivateKeyEncrypted(), params));
+		assertTrue(signer.verify(message, signature, new SDithPublicKey(key.getPublicKey(), key.getSyndrome(), params)));
+	}
+
+	@Test
+	void keyTakenInARolledBackTransactionStaysInThePool() {
+		Optional<UserKeyPair> taken = new TransactionTemplate(transactionManager).execute(status -> {
+			Optional<UserKeyPair> key = keyPoolService.take(LEVEL);
+			status.setRollbackOnly();
+			return key;
+		});
+
+		assertTrue(taken.isPresent());
+		assertEquals(3, keyPoolRepository.countBySecurityLevel(LEVEL));
+	}
+
+	@Test
+	void undecryptableKeysAreDiscarded() {
+		PooledKeyPair oldest = keyPoolRepository.findAll().stream()
+				.filter(k -> k.getSecurityLevel() == LEVEL)
+				.min(Comparator.comparing(PooledKeyPair::getId))
+				.orElseThrow();
+		oldest.getPrivateKeyCiphertext()[20] ^= 1;
+		keyPoolRepository.save(oldest);
+
+		assertTrue(keyPoolService.take(LEVEL).isPresent());
+		assertFalse(keyPoolRepository.existsById(oldest.getId()));
+		assertEquals(1, keyPoolRepository.countBySecurityLevel(LEVEL));
+	}
+
+	@Test
+	void emptyLevelYieldsNothing() {
+		while (keyPoolService.take(LEVEL).isPresent()) {
+		}
+		assertEquals(Optional.empty(), keyPoolService.take(LEVEL));
+	}
+
+	@Test
+	void missingEncryptionKeyFailsOutsideDev() {
+		KeyPoolService prod = new KeyPoolService(transactionManager, new MockEnvironment());
+		ReflectionTestUtils.setField(prod, "encryptionKey", "");
+		assertThrows(IllegalStateException.class, prod::init);
+
+		ReflectionTestUtils.setField(prod, "encryptionKey", "c2hvcnQ=");
+		assertThrows(IllegalStateException.class, prod::init);
+
+		MockEnvironment devEnvironment = new MockEnvironment();
+		devEnvironment.setActiveProfiles("dev");
+		KeyPoolService dev = new KeyPoolService(transactionManager, devEnvironment);
+		ReflectionTestUtils.setField(dev, "encryptionKey", "");
+		assertDoesNotThrow(dev::init);
+	}
+}
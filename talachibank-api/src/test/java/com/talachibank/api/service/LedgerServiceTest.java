@@ -0,0 +1,136 @@
+package com.talachibank.api.service;
+
+import com.talachibank.api.model.Transaction;
+import com.talachibank.api.model.TransactionStatus;
+import com.talachibank.api.model.TransactionType;
+import com.talachibank.api.model.User;
+import com.talachibank.api.repository.LedgerCheckpointRepository;
+import com.talachibank.api.repository.TransactionRepository;
+import com.talachibank.api.repository.UserRepository;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.UUID;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@SpringBootTest
+@ActiveProfiles("h2")
+class LedgerServiceTest {
+
+	private static final AtomicInteger SEQ = new AtomicInteger();
+
+	@Autowired
+	private LedgerService ledgerService;
+
+	@Autowired
+	private LedgerMaintenance ledgerMaintenance;
+
+	@Autowired
+	private LedgerCheckpointRepository ledgerCheckpointRepository;
+
+	@Autowired
+	private TransactionService transactionService;
+
+	@Autowired
+	private TransactionRepository transactionRepository;
+
+	@Autowired
+	private UserRepository userRepository;
+
+	@Test
+	void balanceAtBeforeAndAfterATransfer() throws InterruptedException {
+		User sender = newAccount(new BigDecimal("100.00"), true);
+		User recipient = newAccount(new BigDecimal("5.00"), true);
+		LocalDateTime before = tick();
+
+		UUID id = signedTransfer(sender, recipient, new BigDecimal("30.00"));
+		transactionService.executeTransaction(id, sender);
+		LocalDateTime after = tick();
+
+		assertBalanceAt("100.00", sender, before);
+		assertBalanceAt("5.00", recipient, before);
+		assertBalanceAt("70.00", sender, after);
+		assertBalanceAt("35.00", recipient, after);
+
+		// Same answers once the history before the transfer is folded into checkpoints
+		ledgerMaintenance.checkpoint(before);
+		assertTrue(ledgerCheckpointRepository
+				.findFirstByAccountNumberAndAsOfLessThanEqualOrderByAsOfDesc(sender.getAccountNumber(), after)
+				.isPresent());
+		assertBalanceAt("100.00", sender, before);
+		assertBalanceAt("70.00", sender, after);
+		assertBalanceAt("35.00", recipient, after);
+		assertEquals(0, ledgerMaintenance.checkpoint(before), "already checkpointed");
+	}
+
+	@Test
+	void accountsBeforeTheLedgerAreRefusedUntilBackfilled() throws InterruptedException {
+		User legacy = newAccount(new BigDecimal("80.00"), false);
+		User recipient = newAccount(BigDecimal.ZERO, true);
+		assertThrows(IllegalStateException.class,
+				() -> ledgerService.balanceAt(legacy.getAccountNumber(), LocalDateTime.now()));
+
+		// Only this transfer is in the ledger: on its own it would sum to -20
+		LocalDateTime beforeTransfer = tick();
+		UUID id = signedTransfer(legacy, recipient, new BigDecimal("20.00"));
+		transactionService.executeTransaction(id, legacy);
+		LocalDateTime after = tick();
+
+		assertTrue(ledgerMaintenance.backfill() >= 1);
+		assertBalanceAt("60.00", legacy, after);
+		// The backfill is dated just before the account's first entry; nothing is known before that
+		assertThrows(IllegalStateException.class,
+				() -> ledgerService.balanceAt(legacy.getAccountNumber(), beforeTransfer),
+				"no history before the backfill");
+
+		assertEquals(0, ledgerMaintenance.backfill(), "backfill runs once per account");
+		assertBalanceAt("60.00", legacy, LocalDateTime.now());
+	}
+
+	private void assertBalanceAt(String expected, User user, LocalDateTime at) {
+		assertEquals(0, new BigDecimal(expected).compareTo(ledgerService.balanceAt(user.getAccountNumber(), at)),
+				user.getAccountNumber() + " at " + at);
+	}
+
+	// An instant strictly between the entries written before and after the call
+	private static LocalDateTime tick() throws InterruptedException {
+		Thread.sleep(5);
+		LocalDateTime now = LocalDateTime.now();
+		Thread.sleep(5);
+		return now;
+	}
+
+	private User newAccount(BigDecimal balance, boolean opened) {
+		int n = SEQ.incrementAndGet();
+		String tag = Long.toString(System.nanoTime() % 1_000_000L) + n;
+		User user = new User("ledg" + tag, "ledg" + tag + "@test.local", "x");
+		user.setAccountNumber("TSL-" + tag);
+		user.setBalance(balance);
+		userRepository.save(user);
+		if (opened) {
+			ledgerService.recordOpeningBalance(user.getAccountNumber(), balance);
+		}
+		return user;
+	}
+
+	private UUID signedTransfer(User from, User to, BigDecimal amount) {
+		Transaction tx = Transaction.builder()
+				.transactionType(TransactionType.INTERNAL_TRANSFER)
+				.fromAccountNumber(from.getAccountNumber())
+				.toAccountNumber(to.getAccountNumber())
+				.amount(amount)
+				.currency("EUR")
+				.initiatedBy(from)
+				.initiatedAt(LocalDateTime.now())
+				.status(TransactionStatus.SIGNED)
+				.signatureVerified(true)
+				.build();
+		return transactionRepository.save(tx).getTransactionId();
+	}
+}
@@ -0,0 +1,74 @@
+package com.talachibank.api.service;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class SignedTokenStoreTest {
+
+	private static final long LIFETIME_MS = 60_000L;
+
+	@Test
+	void fullStoreRefusesNewTokensInsteadOfEvictingLiveOnes() {
+		SignedTokenStore store = new SignedTokenStore(LIFETIME_MS, 3);
+		assertTrue(store.add("a"));
+		assertTrue(store.add("b"));
+		assertTrue(store.add("c"));
+
+		assertFalse(store.add("d"));
+
+		assertEquals(3, store.size());
+		assertTrue(store.contains("a"));
+		assertTrue(store.contains("b"));
+		assertTrue(store.contains("c"));
+		assertFalse(store.contains("d"));
+	}
+
+	@Test
+	void expiredEntriesMakeRoomWhenFull() {
+		SignedTokenStore store = new SignedTokenStore(0L, 2);
+		store.add("a");
+		store.add("b");
+		sleepPastMillisecond();
+
+		assertTrue(store.add("c"));
+		assertEquals(1, store.size());
+	}
+
+	@Test
+	void expiredEntriesAreNotAcceptedAndArePurged() {
+		SignedTokenStore store = new SignedTokenStore(0L, 10);
+		store.add("a");
+		store.add("b");
+		sleepPastMillisecond();
+
+		assertFalse(store.contains("a"));
+		store.purgeExpired();
+		assertEquals(0, store.size());
+	}
+
+	@Test
+	void clearDropsEverything() {
+		SignedTokenStore store = new SignedTokenStore(LIFETIME_MS, 10);
+		store.add("a");
+		store.add("b");
+
+		store.clear();
+
+		assertEquals(0, store.size());
+		assertFalse(store.contains("a"));
+	}
+
+	@Test
+	void rejectsNonPositiveCapacity() {
+		assertThrows(IllegalArgumentException.class, () -> new SignedTokenStore(LIFETIME_MS, 0));
+	}
+
+	private static void sleepPastMillisecond() {
+		try {
+			Thread.sleep(2);
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+		}
+	}
+}
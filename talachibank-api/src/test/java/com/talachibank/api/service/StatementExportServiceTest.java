@@ -0,0 +1,145 @@
+package com.talachibank.api.service;
+
+import com.talachibank.api.exception.ServiceSaturatedException;
+import com.talachibank.api.model.Transaction;
+import com.talachibank.api.model.TransactionStatus;
+import com.talachibank.api.model.TransactionType;
+import com.talachibank.api.model.User;
+import com.talachibank.api.repository.TransactionRepository;
+import com.talachibank.api.repository.UserRepository;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@SpringBootTest
+@ActiveProfiles("h2")
+class StatementExportServiceTest {
+
+	private static final AtomicInteger SEQ = new AtomicInteger();
+
+	private static final LocalDateTime T1 = LocalDateTime.of(2026, 4, 1, 10, 0);
+	private static final LocalDateTime T2 = LocalDateTime.of(2026, 4, 2, 10, 0);
+
+	@Autowired
+	private StatementExportService statementExportService;
+
+	@Autowired
+	private TransactionRepository transactionRepository;
+
+	@Autowired
+	private UserRepository userRepository;
+
+	@Autowired
+	private JdbcTemplate jdbcTemplate;
+
+	@Test
+	void csvMergesBothSidesOldestFirst() throws IOException {
+		User owner = newAccount();
+		User other = newAccount();
+		String prefix = Integer.toHexString(0x100 + SEQ.incrementAndGet()).substring(1);
+
+		UUID received = insert(other, owner, "12.50", T1, "0" + prefix + "00000-0000-0000-0000-000000000001");
+		UUID sent = insert(owner, other, "3.00", T1, "9" + prefix + "00000-0000-0000-0000-000000000002");
+		UUID self = insert(owner, owner, "1.00", T2, "1" + prefix + "00000-0000-0000-0000-000000000003");
+		UUID later = insert(other, owner, "7.00", T2, "f" + prefix + "00000-0000-0000-0000-000000000004");
+		insert(other, owner, "5.00", T2.plusDays(5), "2" + prefix + "00000-0000-0000-0000-000000000005");
+
+		String[] lines = export(owner, StatementExportService.Format.CSV).split("\n");
+
+		assertTrue(lines[0].startsWith("transaction_id,initiated_at,"));
+		assertEquals(5, lines.length, "header and four rows; the self-transfer once, the last one out of range");
+		assertRow(lines[1], received, "CREDIT", "12.50");
+		assertRow(lines[2], sent, "DEBIT", "-3.00");
+		assertRow(lines[3], self, "DEBIT", "-1.00");
+		assertRow(lines[4], later, "CREDIT", "7.00");
+	}
+
+	@Test
+	void ndjsonHasOneObjectPerRow() throws IOException {
+		User owner = newAccount();
+		User other = newAccount();
+		String prefix = Integer.toHexString(0x100 + SEQ.incrementAndGet()).substring(1);
+		UUID first = insert(owner, other, "2.00", T1, "a" + prefix + "00000-0000-0000-0000-000000000001");
+		UUID second = insert(other, owner, "4.00", T2, "b" + prefix + "00000-0000-0000-0000-000000000002");
+
+		List<String> lines = export(owner, StatementExportService.Format.NDJSON).lines().toList();
+
+		assertEquals(2, lines.size());
+		assertTrue(lines.get(0).startsWith("{") && lines.get(0).contains(first.toString()));
+		assertTrue(lines.get(1).contains(second.toString()));
+	}
+
+	@Test
+	void exportsBeyondTheLimitAreShed() {
+		int reserved = 0;
+		try {
+			while (reserved < 100) {
+				statementExportService.reserveSlot();
+				reserved++;
+			}
+			fail("no limit on concurrent exports");
+		} catch (ServiceSaturatedException e) {
+			assertEquals(4, reserved);
+			assertTrue(e.getRetryAfterSeconds() > 0);
+		} finally {
+			for (int i = 0; i < reserved; i++) {
+				statementExportService.releaseSlot();
+			}
+		}
+		assertDoesNotThrow(statementExportService::reserveSlot);
+		statementExportService.releaseSlot();
+	}
+
+	private String export(User owner, StatementExportService.Format format) throws IOException {
+		ByteArrayOutputStream out = new ByteArrayOutputStream();
+		statementExportService.writeStatement(owner.getAccountNumber(), T1.minusDays(1), T2.plusDays(1), format, out);
+		return out.toString(StandardCharsets.UTF_8);
+	}
+
+	private static void assertRow(String line, UUID id, String direction, String amount) {
+		String[] columns = line.split(",");
+		assertEquals(id.toString(), columns[0], line);
+		assertEquals(direction, columns[4], line);
+		assertEquals(amount, columns[7], line);
+	}
+
+	private UUID insert(User from, User to, String amount, LocalDateTime initiatedAt, String id) {
+		Transaction tx = transactionRepository.save(Transaction.builder()
+				.transactionType(TransactionType.INTERNAL_TRANSFER)
+				.fromAccountNumber(from.getAccountNumber())
+				.toAccountNumber(to.getAccountNumber())
+				.amount(new BigDecimal(amount))
+				.currency("EUR")
+				.initiatedBy(from)
+				.status(TransactionStatus.EXECUTED)
+				.build());
+		// Both are generated on insert; pin them to build ties and a known id order
+		UUID fixed = UUID.fromString(id);
+		jdbcTemplate.update("update transactions set transaction_id = ?, initiated_at = ? where transaction_id = ?",
+				fixed, Timestamp.valueOf(initiatedAt), tx.getTransactionId());
+		return fixed;
+	}
+
+	private User newAccount() {
+		int n = SEQ.incrementAndGet();
+		String tag = Long.toString(System.nanoTime() % 1_000_000L) + n;
+		User user = new User("stmt" + tag, "stmt" + tag + "@test.local", "x");
+		user.setAccountNumber("TSS-" + tag);
+		user.setBalance(BigDecimal.ZERO);
+		return userRepository.save(user);
+	}
+}
@@ -0,0 +1,92 @@
+package com.talachibank.api.service;
+
+import org.junit.jupiter.api.Test;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.Base64;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class TokenCodecTest {
+
+	private static final String JWT = "eyJhbGciOiJIUzI1NiJ9.eyJzdWIiOiJ1c2VyIn0";
+	private static final int MAX = 64;
+
+	private final Random random = new Random(7);
+
+	@Test
+	void assembleAndDecodeMatchJdkBase64ForEveryLengthModThree() {
+		TokenCodec codec = TokenCodec.current(MAX);
+		for (int length = 0; length <= MAX; length++) {
+			byte[] signature = new byte[length];
+			random.nextBytes(signature);
+			String encoded = Base64.getUrlEncoder().withoutPadding().encodeToString(signature);
+
+			int messageLength = codec.loadMessage(JWT, JWT.length());
+			assertEquals(JWT.length(), messageLength);
+			assertArrayEquals(JWT.getBytes(StandardCharsets.US_ASCII), Arrays.copyOf(codec.message(), messageLength));
+			codec.signatureBuffer().put(signature);
+			String token = codec.assemble(messageLength);
+			assertEquals(JWT + "." + encoded, token);
+			assertEquals(encoded.length(), TokenCodec.encodedLength(length));
+
+			assertEquals(length, codec.decodeSignature(token, JWT.length() + 1, token.length()), "length " + length);
+			assertArrayEquals(signature, Arrays.copyOf(codec.signature(), length));
+		}
+	}
+
+	@Test
+	void paddedSegmentsAreAccepted() {
+		TokenCodec codec = TokenCodec.current(MAX);
+		for (int length = 1; length <= 6; length++) {
+			byte[] signature = new byte[length];
+			random.nextBytes(signature);
+			String padded = Base64.getUrlEncoder().encodeToString(signature);
+
+			assertEquals(length, codec.decodeSignature(padded, 0, padded.length()));
+			assertArrayEquals(signature, Arrays.copyOf(codec.signature(), length));
+		}
+	}
+
+	@Test
+	void illegalCharactersAreRejected() {
+		TokenCodec codec = TokenCodec.current(MAX);
+		for (String segment : new String[] { "AB+D", "AB/D", "AB.D", "AB D", "ABé=", "A=BC" }) {
+			assertEquals(-1, codec.decodeSignature(segment, 0, segment.length()), segment);
+		}
+	}
+
+	@Test
+	void segmentOfOneCharModFourIsRejected() {
+		TokenCodec codec = TokenCodec.current(MAX);
+		assertEquals(-1, codec.decodeSignature("A", 0, 1));
+		assertEquals(-1, codec.decodeSignature("AAAAB", 0, 5));
+		assertEquals(-1, codec.decodeSignature("AAAAB===", 0, 8));
+	}
+
+	@Test
+	void oversizeSegmentIsRejected() {
+		TokenCodec codec = TokenCodec.current(MAX);
+		String fits = Base64.getUrlEncoder().withoutPadding().encodeToString(new byte[MAX]);
+		String tooLong = Base64.getUrlEncoder().withoutPadding().encodeToString(new byte[MAX + 1]);
+
+		assertEquals(MAX, codec.decodeSignature(fits, 0, fits.length()));
+		assertEquals(-1, codec.decodeSignature(tooLong, 0, tooLong.length()));
+	}
+
+	@Test
+	void nonAsciiMessagesAreRejected() {
+		TokenCodec codec = TokenCodec.current(MAX);
+		String token = JWT + "é";
+		assertEquals(-1, codec.loadMessage(token, token.length()));
+	}
+
+	@Test
+	void codecIsReusedPerThreadAndSize() {
+		TokenCodec codec = TokenCodec.current(MAX);
+		assertSame(codec, TokenCodec.current(MAX));
+		assertNotSame(codec, TokenCodec.current(MAX * 2));
+	}
+}
@@ -0,0 +1,108 @@
+package com.talachibank.api.service;
+
+import com.talachibank.api.dto.CursorPage;
+import com.talachibank.api.dto.TransactionSummary;
+import com.talachibank.api.model.Transaction;
+import com.talachibank.api.model.TransactionStatus;
+import com.talachibank.api.model.TransactionType;
+import com.talachibank.api.model.User;
+import com.talachibank.api.repository.TransactionRepository;
+import com.talachibank.api.repository.UserRepository;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.math.BigDecimal;
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@SpringBootTest
+@ActiveProfiles("h2")
+class TransactionHistoryTest {
+
+	private static final AtomicInteger SEQ = new AtomicInteger();
+
+	private static final LocalDateTime T1 = LocalDateTime.of(2026, 3, 1, 10, 0);
+	private static final LocalDateTime T2 = LocalDateTime.of(2026, 3, 2, 10, 0);
+
+	@Autowired
+	private TransactionService transactionService;
+
+	@Autowired
+	private TransactionRepository transactionRepository;
+
+	@Autowired
+	private UserRepository userRepository;
+
+	@Autowired
+	private JdbcTemplate jdbcTemplate;
+
+	@Test
+	void pagesMergeSentAndReceivedNewestFirst() {
+		User owner = newAccount();
+		User other = newAccount();
+		User third = newAccount();
+		String prefix = Integer.toHexString(0x100 + SEQ.incrementAndGet()).substring(1);
+
+		// Ties on initiatedAt are broken by the id, compared unsigned: ids with the top bit set
+		// (negative as Java longs) come first in descending order
+		List<UUID> expected = List.of(
+				insert(owner, other, T2, "f" + prefix + "00000-0000-0000-0000-000000000001"),
+				insert(third, owner, T2, "8" + prefix + "00000-0000-0000-0000-000000000002"),
+				insert(owner, owner, T2, "7" + prefix + "00000-0000-0000-0000-000000000003"),
+				insert(owner, third, T2, "1" + prefix + "00000-0000-0000-0000-000000000004"),
+				insert(other, owner, T1, "c" + prefix + "00000-0000-0000-0000-000000000005"),
+				insert(owner, other, T1, "0" + prefix + "00000-0000-0000-0000-000000000006"));
+		insert(other, third, T2, "e" + prefix + "00000-0000-0000-0000-000000000007"); // not the owner's
+
+		for (int limit : new int[] { 1, 2, 4, 50 }) {
+			List<UUID> seen = new ArrayList<>();
+			String cursor = null;
+			int pages = 0;
+			do {
+				CursorPage<TransactionSummary> page = transactionService.getTransactionPage(owner, cursor, limit);
+				assertTrue(page.getItems().size() <= limit);
+				page.getItems().forEach(s -> seen.add(s.getTransactionId()));
+				cursor = page.getNextCursor();
+				assertTrue(++pages <= expected.size() + 1, "cursor does not advance");
+			} while (cursor != null);
+
+			// The self-transfer shows up once although both legs return it
+			assertEquals(expected, seen, "limit " + limit);
+		}
+	}
+
+	private UUID insert(User from, User to, LocalDateTime initiatedAt, String id) {
+		Transaction tx = transactionRepository.save(Transaction.builder()
+				.transactionType(TransactionType.INTERNAL_TRANSFER)
+				.fromAccountNumber(from.getAccountNumber())
+				.toAccountNumber(to.getAccountNumber())
+				.amount(BigDecimal.ONE)
+				.currency("EUR")
+				.initiatedBy(from)
+				.status(TransactionStatus.EXECUTED)
+				.build());
+		// Both are generated on insert; pin them to build ties and a known id order
+		UUID fixed = UUID.fromString(id);
+		jdbcTemplate.update("update transactions set transaction_id = ?, initiated_at = ? where transaction_id = ?",
+				fixed, Timestamp.valueOf(initiatedAt), tx.getTransactionId());
+		return fixed;
+	}
+
+	private User newAccount() {
+		int n = SEQ.incrementAndGet();
+		String tag = Long.toString(System.nanoTime() % 1_000_000L) + n;
+		User user = new User("hist" + tag, "hist" + tag + "@test.local", "x");
+		user.setAccountNumber("TSH-" + tag);
+		user.setBalance(BigDecimal.ZERO);
+		return userRepository.save(user);
+	}
+}
@@ -0,0 +1,181 @@
+package com.talachibank.api.service;
+
+import com.talachibank.api.exception.InsufficientFundsException;
+import com.talachibank.api.model.Transaction;
+import com.talachibank.api.model.TransactionStatus;
+import com.talachibank.api.model.TransactionType;
+import com.talachibank.api.model.User;
+import com.talachibank.api.repository.TransactionRepository;
+import com.talachibank.api.repository.UserRepository;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@SpringBootTest
+@ActiveProfiles("h2")
+class TransactionServiceConcurrencyTest {
+
+	private static final int THREADS = 32;
+	private static final AtomicInteger SEQ = new AtomicInteger();
+
+	@Autowired
+	private TransactionService transactionService;
+
+	@Autowired
+	private TransactionRepository transactionRepository;
+
+	@Autowired
+	private UserRepository userRepository;
+
+	@Autowired
+	private LedgerService ledgerService;
+
+	@Autowired
+	private MeterRegistry meterRegistry;
+
+	@Test
+	void concurrentTransfersFromSameAccountLoseNoUpdates() throws Exception {
+		User sender = newAccount(new BigDecimal("1000.00"));
+		User recipient = newAccount(BigDecimal.ZERO);
+
+		int transfers = 400;
+		List<UUID> ids = new ArrayList<>();
+		for (int i = 0; i < transfers; i++) {
+			ids.add(signedTransfer(sender, recipient, BigDecimal.ONE).getTransactionId());
+		}
+
+		List<Callable<Transaction>> tasks = new ArrayList<>();
+		for (UUID id : ids) {
+			tasks.add(() -> transactionService.executeTransaction(id, sender));
+		}
+		assertEquals(0, runAll(tasks).failures);
+
+		assertEquals(0, new BigDecimal("600.00").compareTo(balanceOf(sender)));
+		assertEquals(0, new BigDecimal("400.00").compareTo(balanceOf(recipient)));
+
+		// The recipient started empty, so its ledger alone must rebuild the balance
+		assertEquals(0, balanceOf(recipient)
+				.compareTo(ledgerService.balanceAt(recipient.getAccountNumber(), LocalDateTime.now())));
+	}
+
+	@Test
+	void sameTransactionIsExecutedExactlyOnce() throws Exception {
+		User sender = newAccount(new BigDecimal("100.00"));
+		User recipient = newAccount(BigDecimal.ZERO);
+		UUID id = signedTransfer(sender, recipient, new BigDecimal("10.00")).getTransactionId();
+
+		List<Callable<Transaction>> tasks = new ArrayList<>();
+		for (int i = 0; i < THREADS; i++) {
+			tasks.add(() -> transactionService.executeTransaction(id, sender));
+		}
+		Outcome outcome = runAll(tasks);
+
+		assertEquals(1, outcome.successes);
+		assertEquals(0, new BigDecimal("90.00").compareTo(balanceOf(sender)));
+		assertEquals(0, new BigDecimal("10.00").compareTo(balanceOf(recipient)));
+	}
+
+	@Test
+	void opposingTransfersDoNotDeadlockAndConserveFunds() throws Exception {
+		User a = newAccount(new BigDecimal("500.00"));
+		User b = newAccount(new BigDecimal("500.00"));
+
+		List<Callable<Transaction>> tasks = new ArrayList<>();
+		for (int i = 0; i < 200; i++) {
+			UUID ab = signedTransfer(a, b, BigDecimal.ONE).getTransactionId();
+			UUID ba = signedTransfer(b, a, BigDecimal.ONE).getTransactionId();
+			tasks.add(() -> transactionService.executeTransaction(ab, a));
+			tasks.add(() -> transactionService.executeTransaction(ba, b));
+		}
+		assertEquals(0, runAll(tasks).failures);
+
+		assertEquals(0, new BigDecimal("500.00").compareTo(balanceOf(a)));
+		assertEquals(0, new BigDecimal("500.00").compareTo(balanceOf(b)));
+	}
+
+	@Test
+	void uncoveredTransferIsMarkedFailed() {
+		User sender = newAccount(new BigDecimal("5.00"));
+		User recipient = newAccount(BigDecimal.ZERO);
+		UUID id = signedTransfer(sender, recipient, new BigDecimal("10.00")).getTransactionId();
+		Counter failed = meterRegistry.counter("talachibank.transactions.transitions", "from", "SIGNED", "to",
+				"FAILED");
+		double failedBefore = failed.count();
+
+		assertThrows(InsufficientFundsException.class, () -> transactionService.executeTransaction(id, sender));
+
+		assertEquals(TransactionStatus.FAILED, transactionRepository.findById(id).orElseThrow().getStatus());
+		assertEquals(failedBefore + 1, failed.count());
+		assertEquals(0, new BigDecimal("5.00").compareTo(balanceOf(sender)));
+		assertEquals(0, BigDecimal.ZERO.compareTo(balanceOf(recipient)));
+	}
+
+	private Outcome runAll(List<Callable<Transaction>> tasks) throws InterruptedException {
+		ExecutorService pool = Executors.newFixedThreadPool(THREADS);
+		Outcome outcome = new Outcome();
+		try {
+			for (Future<Transaction> future : pool.invokeAll(tasks)) {
+				try {
+					future.get();
+					outcome.successes++;
+				} catch (Exception e) {
+					outcome.failures++;
+				}
+			}
+		} finally {
+			pool.shutdown();
+		}
+		return outcome;
+	}
+
+	private User newAccount(BigDecimal balance) {
+		int n = SEQ.incrementAndGet();
+		String tag = Long.toString(System.nanoTime() % 1_000_000L) + n;
+		User user = new User("conc" + tag, "conc" + tag + "@test.local", "x");
+		user.setAccountNumber("TST-" + tag);
+		user.setBalance(balance);
+		userRepository.save(user);
+		ledgerService.recordOpeningBalance(user.getAccountNumber(), balance);
+		return user;
+	}
+
+	private Transaction signedTransfer(User from, User to, BigDecimal amount) {
+		Transaction tx = Transaction.builder()
+				.transactionType(TransactionType.INTERNAL_TRANSFER)
+				.fromAccountNumber(from.getAccountNumber())
+				.toAccountNumber(to.getAccountNumber())
+				.amount(amount)
+				.currency("EUR")
+				.initiatedBy(from)
+				.initiatedAt(LocalDateTime.now())
+				.status(TransactionStatus.SIGNED)
+				.signatureVerified(true)
+				.build();
+		return transactionRepository.save(tx);
+	}
+
+	private BigDecimal balanceOf(User user) {
+		return userRepository.findById(user.getId()).orElseThrow().getBalance();
+	}
+
+	private static class Outcome {
+		int successes;
+		int failures;
+	}
+}
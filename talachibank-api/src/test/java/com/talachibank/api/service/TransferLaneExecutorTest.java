@@ -0,0 +1,161 @@
+package com.talachibank.api.service;
+
+import com.talachibank.api.exception.ServiceSaturatedException;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class TransferLaneExecutorTest {
+
+	@Test
+	void workForTheSameAccountNeverOverlaps() throws Exception {
+		TransferLaneExecutor lanes = new TransferLaneExecutor(1000, 1000, 10_000);
+		AtomicInteger running = new AtomicInteger();
+		AtomicInteger maxRunning = new AtomicInteger();
+		int[] unguarded = { 0 };
+
+		ExecutorService pool = Executors.newFixedThreadPool(32);
+		try {
+			List<Future<?>> futures = new ArrayList<>();
+			for (int i = 0; i < 500; i++) {
+				futures.add(pool.submit(() -> lanes.execute("ACC-HOT", () -> {
+					maxRunning.accumulateAndGet(running.incrementAndGet(), Math::max);
+					int seen = unguarded[0];
+					Thread.yield();
+					unguarded[0] = seen + 1;
+					running.decrementAndGet();
+					return null;
+				})));
+			}
+			for (Future<?> future : futures) {
+				future.get();
+			}
+		} finally {
+			pool.shutdown();
+		}
+
+		assertEquals(1, maxRunning.get());
+		assertEquals(500, unguarded[0], "no increment was lost");
+		assertEquals(0, lanes.queued());
+	}
+
+	@Test
+	void slowWorkOnOneAccountDoesNotBlockAnother() throws Exception {
+		TransferLaneExecutor lanes = new TransferLaneExecutor(10, 100, 10_000);
+		CountDownLatch slowStarted = new CountDownLatch(1);
+		CountDownLatch release = new CountDownLatch(1);
+
+		ExecutorService pool = Executors.newFixedThreadPool(2);
+		try {
+			Future<?> slow = pool.submit(() -> lanes.execute("ACC-A", () -> {
+				slowStarted.countDown();
+				await(release);
+				return null;
+			}));
+			assertTrue(slowStarted.await(5, TimeUnit.SECONDS));
+
+			Future<String> other = pool.submit(() -> lanes.execute("ACC-B", () -> "done"));
+			assertEquals("done", other.get(5, TimeUnit.SECONDS));
+
+			release.countDown();
+			slow.get(5, TimeUnit.SECONDS);
+		} finally {
+			release.countDown();
+			pool.shutdown();
+		}
+	}
+
+	@Test
+	void callersBeyondTheAccountBoundAreShed() throws Exception {
+		TransferLaneExecutor lanes = new TransferLaneExecutor(2, 100, 10_000);
+		CountDownLatch holding = new CountDownLatch(1);
+		CountDownLatch release = new CountDownLatch(1);
+
+		ExecutorService pool = Executors.newFixedThreadPool(2);
+		try {
+			Future<?> first = pool.submit(() -> lanes.execute("ACC-HOT", () -> {
+				holding.countDown();
+				await(release);
+				return null;
+			}));
+			assertTrue(holding.await(5, TimeUnit.SECONDS));
+			Future<?> second = pool.submit(() -> lanes.execute("ACC-HOT", () -> null));
+			waitUntil(() -> lanes.queued() == 2);
+
+			ServiceSaturatedException shed = assertThrows(ServiceSaturatedException.class,
+					() -> lanes.execute("ACC-HOT", () -> null));
+			assertTrue(shed.getRetryAfterSeconds() > 0);
+			assertEquals("ok", lanes.execute("ACC-OTHER", () -> "ok"));
+
+			release.countDown();
+			first.get(5, TimeUnit.SECONDS);
+			second.get(5, TimeUnit.SECONDS);
+		} finally {
+			release.countDown();
+			pool.shutdown();
+		}
+		assertEquals(0, lanes.queued());
+	}
+
+	@Test
+	void callersThatWaitTooLongAreShed() throws Exception {
+		TransferLaneExecutor lanes = new TransferLaneExecutor(10, 100, 50);
+		CountDownLatch holding = new CountDownLatch(1);
+		CountDownLatch release = new CountDownLatch(1);
+
+		ExecutorService pool = Executors.newSingleThreadExecutor();
+		try {
+			Future<?> first = pool.submit(() -> lanes.execute("ACC-HOT", () -> {
+				holding.countDown();
+				await(release);
+				return null;
+			}));
+			assertTrue(holding.await(5, TimeUnit.SECONDS));
+
+			assertThrows(ServiceSaturatedException.class, () -> lanes.execute("ACC-HOT", () -> null));
+
+			release.countDown();
+			first.get(5, TimeUnit.SECONDS);
+		} finally {
+			release.countDown();
+			pool.shutdown();
+		}
+		assertEquals(0, lanes.queued());
+	}
+
+	@Test
+	void exceptionsFromWorkPropagateAndFreeTheLane() {
+		TransferLaneExecutor lanes = new TransferLaneExecutor(10, 100, 10_000);
+
+		assertThrows(IllegalStateException.class, () -> lanes.execute("ACC-A", () -> {
+			throw new IllegalStateException("boom");
+		}));
+		assertEquals(0, lanes.queued());
+		assertEquals("ok", lanes.execute("ACC-A", () -> "ok"));
+	}
+
+	private static void await(CountDownLatch latch) {
+		try {
+			latch.await(10, TimeUnit.SECONDS);
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+		}
+	}
+
+	private static void waitUntil(java.util.function.BooleanSupplier condition) throws InterruptedException {
+		long deadline = System.currentTimeMillis() + 5000;
+		while (!condition.getAsBoolean() && System.currentTimeMillis() < deadline) {
+			Thread.sleep(5);
+		}
+		assertTrue(condition.getAsBoolean());
+	}
+}
@@ -0,0 +1,64 @@
+package com.talachibank.api.service;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@SpringBootTest
+@ActiveProfiles("h2")
+class UserKeyPairSchemaMigrationTest {
+
+	private static final int TEST_LEVEL = -1;
+
+	@Autowired
+	private UserKeyPairSchemaMigration migration;
+
+	@Autowired
+	private JdbcTemplate jdbcTemplate;
+
+	@Test
+	void schemaFromBeforePendingAcceptsItAfterMigration() {
+		// Put the table back in the state an older release left it in
+		for (String name : statusChecks()) {
+			jdbcTemplate.execute("alter table user_key_pairs drop constraint \"" + name + "\"");
+		}
+		jdbcTemplate.execute("alter table user_key_pairs add constraint user_key_pairs_status_check "
+				+ "check (status in ('ACTIVE', 'REVOKED', 'EXPIRED'))");
+		assertThrows(DataIntegrityViolationException.class, () -> insertKey("PENDING"));
+
+		try {
+			migration.migrate();
+
+			assertEquals(1, statusChecks().size());
+			insertKey("PENDING");
+			insertKey("ACTIVE");
+			assertThrows(DataIntegrityViolationException.class, () -> insertKey("BOGUS"), "still checked");
+
+			migration.migrate();
+			assertEquals(List.of(UserKeyPairSchemaMigration.STATUS_CHECK), statusChecks(), "no-op once current");
+		} finally {
+			// Ownerless rows must not reach the provisioning sweep of other tests
+			jdbcTemplate.update("delete from user_key_pairs where security_level = ?", TEST_LEVEL);
+		}
+	}
+
+	private void insertKey(String status) {
+		jdbcTemplate.update("insert into user_key_pairs (security_level, status, usage_count) values (?, ?, 0)",
+				TEST_LEVEL, status);
+	}
+
+	private List<String> statusChecks() {
+		return jdbcTemplate.queryForList("select tc.constraint_name from information_schema.table_constraints tc "
+				+ "join information_schema.check_constraints cc "
+				+ "on cc.constraint_schema = tc.constraint_schema and cc.constraint_name = tc.constraint_name "
+				+ "where tc.table_name = 'user_key_pairs' and tc.constraint_type = 'CHECK' "
+				+ "and lower(cc.check_clause) like '%status%'", String.class);
+	}
+}
@@ -6,8 +6,9 @@ import RecentTransactions from '@/components/dashboard/RecentTransactions';
 import BalanceCard from '@/components/dashboard/BalanceCard';
 import { PlusIcon, CheckBadgeIcon, DocumentArrowDownIcon } from '@heroicons/react/24/outline';
 import Link from 'next/link';
-import { useState, useEffect } from 'react';
+import { useState, useEffect, useCallback } from 'react';
 import { useAuth } from '@/hooks/useAuth';
+import { useAccountEvents } from '@/hooks/useAccountEvents';
 import { transactionApi, Transaction } from '@/lib/api/transaction';
 
 export default function DashboardPage() {
@@ -15,21 +16,27 @@ export default function DashboardPage() {
     const [transactions, setTransactions] = useState<Transaction[]>([]);
     const [isLoading, setIsLoading] = useState(true);
 
-    useEffect(() => {
-        const fetchTransactions = async () => {
-            try {
-                const data = await transactionApi.getMyTransactions();
-                setTransactions(data);
-            } catch (err) {
-                console.error("Failed to fetch transactions:", err);
-            } finally {
-                setIsLoading(false);
-            }
-        };
+    const fetchTransactions = useCallback(async () => {
+        try {
+            const data = await transactionApi.getMyTransactions();
+            setTransactions(data);
+        } catch (err) {
+            console.error("Failed to fetch transactions:", err);
+        } finally {
+            setIsLoading(false);
+        }
+    }, []);
 
+    useEffect(() => {
         fetchTransactions();
         refreshBalance();
-    }, [refreshBalance]);
+    }, [fetchTransactions, refreshBalance]);
+
+    // Pushed by the server instead of polling
+    useAccountEvents({
+        onBalance: () => refreshBalance(),
+        onTransaction: () => fetchTransactions(),
+    });
     return (
         <div className="min-h-screen bg-slate-50">
             <TopBar />
@@ -38,7 +38,8 @@ export default function SignTransactionPage() {
     useEffect(() => {
         const fetchKeys = async () => {
             try {
-                const data = await transactionApi.getKeys();
+                // Keys still being generated (PENDING) cannot sign yet
+                const data = (await transactionApi.getKeys()).filter((key: any) => key.status === 'ACTIVE');
                 setKeys(data);
                 if (data.length > 0) setSelectedKeyId(data[0].id);
             } catch (err) {
@@ -0,0 +1,85 @@
+'use client';
+
+import { useEffect, useRef } from 'react';
+import { apiClient } from '@/lib/api/client';
+
+export interface BalanceEvent {
+  accountNumber: string;
+  balance: number;
+}
+
+export interface TransactionEvent {
+  transactionId: string;
+  status: string;
+  amount: number;
+  currency: string;
+  fromAccountNumber: string;
+  toAccountNumber: string;
+}
+
+interface Handlers {
+  onBalance?: (event: BalanceEvent) => void;
+  onTransaction?: (event: TransactionEvent) => void;
+}
+
+const RETRY_MS = 5000;
+
+// Subscribes to /api/events/stream (Server-Sent Events).
+// EventSource cannot send an Authorization header, so the stream is read with fetch.
+export const useAccountEvents = (handlers: Handlers) => {
+  const handlersRef = useRef(handlers);
+  handlersRef.current = handlers;
+
+  useEffect(() => {
+    const controller = new AbortController();
+    let retryTimer: ReturnType<typeof setTimeout> | undefined;
+
+    const dispatch = (block: string) => {
+      let name = 'message';
+      const data: string[] = [];
+      for (const line of block.split('\n')) {
+        if (line.startsWith('event:')) name = line.slice(6).trim();
+        else if (line.startsWith('data:')) data.push(line.slice(5).trimStart());
+      }
+      if (data.length === 0) return; // heartbeat comment
+      const payload = JSON.parse(data.join('\n'));
+      if (name === 'balance') handlersRef.current.onBalance?.(payload);
+      else if (name === 'transaction') handlersRef.current.onTransaction?.(payload);
+    };
+
+    const connect = async () => {
+      const token = apiClient.getToken();
+      if (!token) return;
+      try {
+        const response = await fetch(`${apiClient.getBaseUrl()}/api/events/stream`, {
+          headers: { Authorization: `Bearer ${token}`, Accept: 'text/event-stream' },
+          signal: controller.signal,
+        });
+        if (!response.ok || !response.body) throw new Error(`Event stream failed: ${response.status}`);
+
+        const reader = response.body.pipeThrough(new TextDecoderStream()).getReader();
+        let buffer = '';
+        for (;;) {
+          const { value, done } = await reader.read();
+          if (done) break;
+          buffer += value.replace(/\r\n/g, '\n');
+          let end;
+          while ((end = buffer.indexOf('\n\n')) >= 0) {
+            dispatch(buffer.slice(0, end));
+            buffer = buffer.slice(end + 2);
+          }
+        }
+      } catch (err) {
+        if (controller.signal.aborted) return;
+        console.warn('Account event stream interrupted', err);
+      }
+      if (!controller.signal.aborted) retryTimer = setTimeout(connect, RETRY_MS);
+    };
+
+    connect();
+    return () => {
+      controller.abort();
+      if (retryTimer) clearTimeout(retryTimer);
+    };
+  }, []);
+};
@@ -63,7 +63,11 @@ export class ApiClient {
     return this.client;
   }
 
-  private getToken(): string | null {
+  getBaseUrl(): string {
+    return API_URL;
+  }
+
+  getToken(): string | null {
     if (typeof window !== 'undefined') {
       // 1. Try localStorage FIRST (contains full SDitH token)
       const localToken = localStorage.getItem('accessToken');
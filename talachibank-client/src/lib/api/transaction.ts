@@ -16,6 +16,11 @@ export interface Transaction {
     executedAt?: string;
 }
 
+export interface CursorPage<T> {
+    items: T[];
+    nextCursor: string | null;
+}
+
 export interface CreateTransactionRequest {
     toAccountNumber: string;
     amount: number;
@@ -47,7 +52,12 @@ export const transactionApi = {
     },
 
     getMyTransactions: async (): Promise<Transaction[]> => {
-        const response = await apiClient.getClient().get('/api/transactions');
+        const page = await transactionApi.getTransactionPage();
+        return page.items;
+    },
+
+    getTransactionPage: async (cursor?: string, limit = 50): Promise<CursorPage<Transaction>> => {
+        const response = await apiClient.getClient().get('/api/v2/transactions', { params: { cursor, limit } });
         return response.data;
     },
 